@@ -0,0 +1,62 @@
+package meep.tool;
+
+/** Deterministic task fixtures shared by the benchmarks. */
+final class BenchmarkData {
+    private static final String[] WORDS = {
+        "report", "groceries", "meeting", "review", "invoice", "gym", "call", "deploy"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns the command text for the i-th fixture task, cycling through todo,
+     * deadline and event tasks with dates spread over roughly three years.
+     *
+     * @param i
+     *            fixture number
+     * @return a task command such as "deadline review 42 /by 2025-03-14"
+     */
+    static String taskCommand(int i) {
+        String description = WORDS[i % WORDS.length] + " " + i;
+        String date = date(i, 0);
+        switch (i % 3) {
+            case 0 :
+                return "todo " + description;
+            case 1 :
+                return "deadline " + description + " /by " + date;
+            default :
+                return "event " + description + " /from " + date + " /to " + date(i, 7);
+        }
+    }
+
+    /**
+     * Fills the list with {@code size} fixture tasks, marking every other one
+     * done.
+     *
+     * @param tasks
+     *            list to fill
+     * @param size
+     *            number of tasks to add
+     * @return the same list
+     */
+    static TaskList populate(TaskList tasks, int size) {
+        for (int i = 0; i < size; i++) {
+            Task task = Task.buildTask(taskCommand(i)).getFirst();
+            if (i % 2 == 0) {
+                task.markDone();
+            }
+            tasks.addTask(task);
+        }
+        return tasks;
+    }
+
+    // Days past the i-th fixture's start date; events end a week after they
+    // start, even where the start date wraps around
+    private static String date(int i, int offset) {
+        int day = i % 1000 + offset;
+        return java.time.LocalDate.of(2024, 1, 1)
+                .plusDays(day)
+                .format(Task.getInputFormatter());
+    }
+}
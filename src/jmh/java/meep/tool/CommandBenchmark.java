@@ -0,0 +1,47 @@
+package meep.tool;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Read-only commands executed against the shared task list. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Setup
+    public void setUp() {
+        Command.TASKS.clearTasks();
+        BenchmarkData.populate(Command.TASKS, size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Command.TASKS.clearTasks();
+    }
+
+    @Benchmark
+    public String find() {
+        return new Command.FindCommand("review 12").execute();
+    }
+
+    @Benchmark
+    public String checkDue() {
+        return new Command.CheckDueCommand("check due 2024-02-01").execute();
+    }
+
+    @Benchmark
+    public String listTasks() {
+        return new Command.ListTasksCommand().execute();
+    }
+}
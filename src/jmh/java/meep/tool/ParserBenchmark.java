@@ -0,0 +1,42 @@
+package meep.tool;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Throughput of turning raw input lines into commands and tasks. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private static final String[] INPUTS = {
+        "list", "mark 12", "  deadline   review 7  /by 2025-03-14 ", "find report", "check due 2025-01-01",
+        "event gym 3 /from 2025-01-01 /to 2025-01-08", "todo call 9", "something unknown"
+    };
+
+    private int next;
+
+    /** Drops recorded input messages so history growth does not skew results. */
+    @Setup(Level.Iteration)
+    public void clearMessages() {
+        Command.MESSAGES.clearMessages();
+    }
+
+    @Benchmark
+    public Command parseQuiet() {
+        next = (next + 1) % INPUTS.length;
+        return Parser.parseQuiet(INPUTS[next]);
+    }
+
+    @Benchmark
+    public Pair<Task, Exception> buildTask() {
+        next = (next + 1) % 3;
+        return Task.buildTask(BenchmarkData.taskCommand(next));
+    }
+}
@@ -0,0 +1,57 @@
+package meep.tool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Full save and load of a task file at several list sizes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public Storage.Format format;
+
+    private TaskList tasks;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        tasks = BenchmarkData.populate(new TaskList(), size);
+        file = Files.createTempFile("meep-bench", ".txt");
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(format);
+        Storage.saveTasks(tasks, new StringBuilder());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Storage.setFormat(Storage.Format.TEXT);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean saveTasks() {
+        return Storage.saveTasks(tasks, new StringBuilder());
+    }
+
+    @Benchmark
+    public TaskList loadTasks() {
+        TaskList loaded = new TaskList();
+        Storage.loadTasks(loaded, new StringBuilder());
+        return loaded;
+    }
+}
@@ -0,0 +1,42 @@
+package meep.tool;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Per-task cost of the pipe-delimited save string encoding. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskCodecBenchmark {
+    private Task[] tasks;
+    private String[] saveStrings;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tasks = new Task[3];
+        saveStrings = new String[3];
+        for (int i = 0; i < 3; i++) {
+            tasks[i] = Task.buildTask(BenchmarkData.taskCommand(i)).getFirst();
+            saveStrings[i] = Task.saveString(tasks[i]);
+        }
+    }
+
+    @Benchmark
+    public String saveString() {
+        next = (next + 1) % 3;
+        return Task.saveString(tasks[next]);
+    }
+
+    @Benchmark
+    public Task load() {
+        next = (next + 1) % 3;
+        return Task.load(saveStrings[next]);
+    }
+}
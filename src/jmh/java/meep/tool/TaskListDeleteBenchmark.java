@@ -0,0 +1,86 @@
+package meep.tool;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bulk positional deletes and inserts: the tree-backed TaskList against a plain
+ * ArrayList, which is how TaskList stored tasks before. Each invocation starts
+ * from a freshly filled list, so the benchmark runs in single-shot mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class TaskListDeleteBenchmark {
+    private static final int OPERATIONS = 10000;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Task[] fixtures;
+    private TaskList tasks;
+    private ArrayList<Task> arrayList;
+
+    @Setup(Level.Trial)
+    public void buildFixtures() {
+        fixtures = new Task[size];
+        for (int i = 0; i < size; i++) {
+            fixtures[i] = Task.buildTask(BenchmarkData.taskCommand(i)).getFirst();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        tasks = new TaskList(new ObjectTaskStore());
+        arrayList = new ArrayList<>(size);
+        for (Task task : fixtures) {
+            tasks.addTask(task);
+            arrayList.add(task);
+        }
+    }
+
+    @Benchmark
+    public int deleteFront_taskList() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            tasks.removeTask(0);
+        }
+        return tasks.size();
+    }
+
+    @Benchmark
+    public int deleteFront_arrayList() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            arrayList.remove(0);
+        }
+        return arrayList.size();
+    }
+
+    @Benchmark
+    public int insertMiddle_taskList() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            tasks.insertTask(tasks.size() / 2, fixtures[i]);
+        }
+        return tasks.size();
+    }
+
+    @Benchmark
+    public int insertMiddle_arrayList() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            arrayList.add(arrayList.size() / 2, fixtures[i]);
+        }
+        return arrayList.size();
+    }
+}
@@ -0,0 +1,29 @@
+package meep.gui;
+
+import javafx.scene.control.ListCell;
+
+/**
+ * Transcript cell that keeps one {@link DialogBox} and re-fills it for
+ * whichever entry the list view scrolls into it.
+ */
+class ChatCell extends ListCell<ChatEntry> {
+    private final DialogBox box = new DialogBox();
+
+    ChatCell() {
+        // Let the cell take the list's width so long replies wrap instead of
+        // widening the list
+        setPrefWidth(0);
+        getStyleClass().add("chat-cell");
+    }
+
+    @Override
+    protected void updateItem(ChatEntry entry, boolean empty) {
+        super.updateItem(entry, empty);
+        if (empty || entry == null) {
+            setGraphic(null);
+            return;
+        }
+        box.show(entry);
+        setGraphic(box);
+    }
+}
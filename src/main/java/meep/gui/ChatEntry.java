@@ -0,0 +1,63 @@
+package meep.gui;
+
+import javafx.scene.image.Image;
+
+/** One message in the chat transcript, as shown by a {@link DialogBox}. */
+final class ChatEntry {
+    private final String text;
+    private final Image avatar;
+    private final boolean isUser;
+    private final String type;
+
+    private ChatEntry(String text, Image avatar, boolean isUser, String type) {
+        assert text != null : "text must not be null";
+        this.text = text;
+        this.avatar = avatar;
+        this.isUser = isUser;
+        this.type = type;
+    }
+
+    /**
+     * Creates an entry for something the user typed.
+     *
+     * @param text
+     *            the user's input
+     * @param avatar
+     *            the user's picture; may be null
+     * @return the entry
+     */
+    static ChatEntry user(String text, Image avatar) {
+        return new ChatEntry(text, avatar, true, null);
+    }
+
+    /**
+     * Creates an entry for a reply from Meep.
+     *
+     * @param text
+     *            the response text
+     * @param avatar
+     *            Meep's picture for this reply; may be null
+     * @param type
+     *            command type used to pick the bubble style
+     * @return the entry
+     */
+    static ChatEntry meep(String text, Image avatar, String type) {
+        return new ChatEntry(text, avatar, false, type);
+    }
+
+    String getText() {
+        return text;
+    }
+
+    Image getAvatar() {
+        return avatar;
+    }
+
+    boolean isUser() {
+        return isUser;
+    }
+
+    String getType() {
+        return type;
+    }
+}
@@ -1,85 +1,103 @@
 package meep.gui;
 
-import java.io.IOException;
-import java.util.Collections;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
 
 /**
  * Dialog box control with an image for the speaker and a text label for the
  * content.
+ *
+ * <p>
+ * The node tree is built in code rather than from FXML, and a box can be
+ * re-pointed at another {@link ChatEntry} with {@link #show(ChatEntry)}, so
+ * transcript cells reuse a handful of boxes however long the chat gets.
+ * Styling comes from {@code dialog-box.css}, which the main window loads.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-    @FXML
-    private VBox labelBox;
-    @FXML
-    private StackPane avatarContainer;
+    private static final double AVATAR_SIZE = 88.0;
 
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader =
-                    new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private final VBox labelBox = new VBox(dialog);
+    private final StackPane avatarContainer;
+    private final Circle border;
+
+    /** Creates an empty box; call {@link #show(ChatEntry)} to fill it. */
+    DialogBox() {
+        dialog.getStyleClass().add("dialog-label");
+        dialog.setWrapText(true);
+        dialog.setMinWidth(0.0);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setMaxWidth(Double.MAX_VALUE);
+        dialog.setPadding(new Insets(6.0));
+        labelBox.setFillWidth(true);
+        HBox.setHgrow(labelBox, Priority.ALWAYS);
+        HBox.setMargin(labelBox, new Insets(0.0, 7.0, 0.0, 7.0));
+
+        displayPicture.setFitWidth(AVATAR_SIZE);
+        displayPicture.setFitHeight(AVATAR_SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setClip(new Circle(AVATAR_SIZE / 2, AVATAR_SIZE / 2, AVATAR_SIZE / 2));
+        // Subtle circular border overlay
+        border = new Circle(AVATAR_SIZE / 2, AVATAR_SIZE / 2, AVATAR_SIZE / 2 - 0.5);
+        border.setFill(Color.TRANSPARENT);
+        border.setStroke(Color.web("#FFFFFFCC"));
+        border.setStrokeWidth(1.5);
+        avatarContainer = new StackPane(displayPicture, border);
+        avatarContainer.getStyleClass().add("display-picture-container");
+        avatarContainer.setMinSize(AVATAR_SIZE, AVATAR_SIZE);
+        avatarContainer.setMaxSize(AVATAR_SIZE, AVATAR_SIZE);
+        HBox.setMargin(avatarContainer, new Insets(0.0, 7.0, 0.0, 7.0));
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+        setFillHeight(true);
+        setPadding(new Insets(8.0));
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the
-     * right.
+     * Shows an entry in this box: text, avatar, side and styling.
+     *
+     * @param entry
+     *            the chat entry to display
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.BOTTOM_LEFT);
-        // Mirror per-orientation alignments for Meep side
-        if (labelBox != null) {
-            labelBox.setAlignment(Pos.TOP_LEFT);
-        }
-        if (avatarContainer != null) {
-            avatarContainer.setAlignment(Pos.BOTTOM_RIGHT);
-            // Ensure all children (image and border) align to bottom-right in the stack
-            for (Node child : avatarContainer.getChildren()) {
-                StackPane.setAlignment(child, Pos.BOTTOM_RIGHT);
-            }
+    void show(ChatEntry entry) {
+        dialog.setText(entry.getText());
+        displayPicture.setImage(entry.getAvatar());
+        dialog.getStyleClass().setAll("dialog-label");
+        if (entry.isUser()) {
+            getChildren().setAll(labelBox, avatarContainer);
+            align(Pos.BOTTOM_RIGHT, Pos.TOP_RIGHT, Pos.BOTTOM_LEFT);
+        } else {
+            // Meep replies: avatar on the left, text on the right
+            getChildren().setAll(avatarContainer, labelBox);
+            align(Pos.BOTTOM_LEFT, Pos.TOP_LEFT, Pos.BOTTOM_RIGHT);
+            dialog.getStyleClass().add("reply-label");
+            changeDialogStyle(entry.getType());
         }
-        dialog.getStyleClass().add("reply-label");
     }
 
-    public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
-    }
-
-    public static DialogBox getMeepDialog(String text, Image img, String type) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        // Apply additional styling based on command type
-        db.changeDialogStyle(type);
-        return db;
+    private void align(Pos box, Pos label, Pos avatar) {
+        setAlignment(box);
+        labelBox.setAlignment(label);
+        avatarContainer.setAlignment(avatar);
+        for (Node child : avatarContainer.getChildren()) {
+            StackPane.setAlignment(child, avatar);
+        }
     }
 
     private void changeDialogStyle(String commandType) {
+        if (commandType == null) {
+            return;
+        }
         switch (commandType) {
             // Adds
             case "AddMessageCommand", "AddTaskCommand" -> dialog.getStyleClass().add("add-label");
@@ -89,24 +107,6 @@ public class DialogBox extends HBox {
             case "DeleteCommand", "UnknownCommand", "Error" ->
                 dialog.getStyleClass().add("delete-label");
             // Neutral/informational commands (no extra styling beyond reply-label)
-            case "HelloCommand" -> {
-            }
-            case "HowAreYouCommand" -> {
-            }
-            case "ListMessagesCommand" -> {
-            }
-            case "ListTasksCommand" -> {
-            }
-            case "SaveCommand" -> {
-            }
-            case "LoadCommand" -> {
-            }
-            case "CheckDueCommand" -> {
-            }
-            case "HelpCommand" -> {
-            }
-            case "FindCommand" -> {
-            }
             default -> {
             }
         }
@@ -14,6 +14,10 @@ import javafx.stage.Stage;
  * A scrollable help window that lists available commands and their syntaxes as
  * vertically stacked labels. Content is sourced from Meep's "help" response and
  * rendered via FXML and CSS.
+ *
+ * <p>
+ * A window is meant to be kept and reused: {@link #setHelpText(String)} only
+ * rebuilds the entries when the text has changed.
  */
 public class HelpWindow {
     private final Stage stage = new Stage();
@@ -24,6 +28,7 @@ public class HelpWindow {
     private VBox content;
     @FXML
     private Label header;
+    private String helpText;
 
     /**
      * Builds the help window using the raw help text from Meep.
@@ -47,7 +52,23 @@ public class HelpWindow {
         }
 
         header.setText("Meep Commands");
-        populateFromHelp(helpText == null ? "" : helpText);
+        setHelpText(helpText);
+    }
+
+    /**
+     * Replaces the listed commands with those in the given help text.
+     *
+     * @param helpText
+     *            response produced by Meep for the "help" command
+     */
+    public void setHelpText(String helpText) {
+        String text = helpText == null ? "" : helpText;
+        if (text.equals(this.helpText)) {
+            return;
+        }
+        this.helpText = text;
+        content.getChildren().setAll(header);
+        populateFromHelp(text);
     }
 
     private void populateFromHelp(String helpText) {
@@ -0,0 +1,50 @@
+package meep.gui;
+
+import java.net.URL;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javafx.scene.image.Image;
+
+/**
+ * Shared cache of decoded avatar images, keyed by classpath resource path.
+ *
+ * <p>
+ * Each resource is decoded at most once per run, already scaled down to the
+ * size it is displayed at, and every caller gets the same {@link Image}.
+ * Missing resources are remembered too, so a fallback lookup does not search
+ * the classpath again on every reply. Decoding happens on JavaFX's background
+ * loader; views show the image as soon as it is ready.
+ */
+final class ImageCache {
+    /** Decode size for avatars: the 88px display size at 2x for HiDPI screens. */
+    private static final double AVATAR_SIZE = 176.0;
+
+    private static final ConcurrentMap<String, Optional<Image>> IMAGES =
+            new ConcurrentHashMap<>();
+
+    private ImageCache() {
+    }
+
+    /**
+     * Returns the cached avatar image for a resource, decoding it on first use.
+     *
+     * @param resourcePath
+     *            classpath path, e.g. {@code /images/avatar.jpg}
+     * @return the shared image, or null if the resource does not exist
+     */
+    static Image get(String resourcePath) {
+        assert resourcePath != null : "resource path must not be null";
+        return IMAGES.computeIfAbsent(resourcePath, ImageCache::load).orElse(null);
+    }
+
+    private static Optional<Image> load(String resourcePath) {
+        URL url = ImageCache.class.getResource(resourcePath);
+        if (url == null) {
+            return Optional.empty();
+        }
+        // Preserve ratio, smooth scaling, decode in the background
+        return Optional.of(
+                new Image(url.toExternalForm(), AVATAR_SIZE, AVATAR_SIZE, true, true, true));
+    }
+}
@@ -8,6 +8,7 @@ import javafx.application.Application;
  */
 public class Launcher {
     public static void main(String[] args) {
+        StartupTimer.mark("launcher started");
         Application.launch(Main.class, args);
     }
 }
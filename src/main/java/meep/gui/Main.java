@@ -2,10 +2,12 @@ package meep.gui;
 
 import java.io.IOException;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import meep.tool.AutoSaver;
 import meep.ui.Meep;
 
 /**
@@ -13,14 +15,19 @@ import meep.ui.Meep;
  *
  * <p>
  * Loads the main window from FXML and wires the controller with a Meep
- * instance.
+ * instance. Only what the first frame needs is loaded before the window is
+ * shown; the background image and avatars follow once it has been laid out.
+ * Run with {@code -Dmeep.startup.trace=true} to print per-phase timings.
  */
 public class Main extends Application {
 
     private Meep meep = new Meep();
+    private AutoSaver autoSaver;
 
     @Override
     public void start(Stage stage) {
+        StartupTimer.mark("JavaFX toolkit started");
+        autoSaver = AutoSaver.start();
         try {
             stage.setMinHeight(220);
             stage.setMinWidth(417);
@@ -28,15 +35,38 @@ public class Main extends Application {
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
             Scene scene = new Scene(ap);
+            StartupTimer.mark("main window loaded");
 
             stage.setScene(scene);
             stage.setTitle("Meep");
             MainWindow controller = fxmlLoader.getController();
             controller.setMeep(meep); // inject the Meep instance
             controller.setStage(stage); // provide stage for graceful shutdown
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    // The first frame is about to be drawn; defer the rest
+                    scene.removePostLayoutPulseListener(this);
+                    StartupTimer.mark("first frame");
+                    Platform.runLater(() -> {
+                        ap.getStyleClass().add("backdrop");
+                        controller.preloadImages();
+                        StartupTimer.mark("deferred resources started");
+                    });
+                }
+            });
             stage.show();
+            StartupTimer.mark("window shown");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /** Writes any unsaved task changes before the application exits. */
+    @Override
+    public void stop() {
+        if (autoSaver != null) {
+            autoSaver.close();
+        }
+    }
 }
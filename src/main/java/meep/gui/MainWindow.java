@@ -1,14 +1,18 @@
 package meep.gui;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import meep.tool.Pair;
@@ -16,37 +20,57 @@ import meep.ui.Meep;
 
 /** Main window controller for the JavaFX GUI. */
 public class MainWindow extends AnchorPane {
+    private static final String USER_IMAGE = "/images/avatar.jpg";
+    private static final String HAPPY_IMAGE = "/images/happy_robot.jpg";
+    private static final String SAD_IMAGE = "/images/sad_robot.jpg";
+    private static final String TALK_IMAGE = "/images/talk_robot.jpg";
+    private static final String SMILE_IMAGE = "/images/smile_robot.jpg";
+    private static final String FALLBACK_IMAGE = "/images/DaMeep.png";
+
+    // Virtualized transcript: only visible entries get (reused) cells
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatEntry> transcript;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
     // Background image is now applied via CSS on the root; no FXML image nodes
     // needed
 
     private Meep meep;
     private Stage stage;
+    // Runs commands off the FX thread, one at a time in submission order
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "meep-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Commands submitted but not yet answered; only touched on the FX thread
+    private int pending = 0;
 
-    private Image userImage;
-    private Image meepHappyImage;
-    private Image meepSadImage;
-    private Image meepTalkImage;
-    private Image meepSmileImage;
+    // Created on first "help" and reused afterwards
+    private HelpWindow helpWindow;
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        // Load images with graceful fallbacks
-        userImage = loadFirstAvailable("/images/avatar.jpg");
-        meepHappyImage = loadFirstAvailable("/images/happy_robot.jpg");
-        meepSadImage = loadFirstAvailable("/images/sad_robot.jpg");
-        meepTalkImage = loadFirstAvailable("/images/talk_robot.jpg");
-        meepSmileImage = loadFirstAvailable("/images/smile_robot.jpg");
-
-        // Background handled by CSS; nothing to wire here
+        transcript.setCellFactory(list -> new ChatCell());
+        transcript.setFocusTraversable(false);
+        // Avatars are fetched from ImageCache on first use (see preloadImages);
+        // the background image is handled by CSS
+    }
+
+    /**
+     * Starts decoding every avatar in the background so the first replies do
+     * not wait for them. Called once the window has been shown.
+     */
+    void preloadImages() {
+        for (String path : new String[] {
+            USER_IMAGE, HAPPY_IMAGE, SAD_IMAGE, TALK_IMAGE, SMILE_IMAGE
+        }) {
+            ImageCache.get(path);
+        }
     }
 
     /**
@@ -70,124 +94,141 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing
-     * Duke's reply and then appends them to the dialog container. Clears the user
-     * input after processing.
+     * Echoes the user's input, then runs it on the background worker and appends
+     * Meep's reply once it is ready. Inputs submitted while earlier ones are
+     * still running queue up behind them and are answered in order. Clears the
+     * user input immediately.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
+        userInput.clear();
+        append(ChatEntry.user(input, ImageCache.get(USER_IMAGE)));
 
         // Special handling for GUI shutdown when ByeCommand is invoked
         if ("bye".equals(input.trim())) {
-            // Show user and Meep farewell messages without routing to Parser
-            dialogContainer
-                    .getChildren()
-                    .addAll(
-                            DialogBox.getUserDialog(input, userImage),
-                            DialogBox.getMeepDialog(
-                                    "Bye. Hope to see you again soon!",
-                                    meepImageForType("Goodbye"),
-                                    "Goodbye"));
-            userInput.clear();
+            // Reply without routing to Parser, but only close once queued
+            // commands (e.g. a save) have finished
             userInput.setDisable(true);
             sendButton.setDisable(true);
-            PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
-            delay.setOnFinished(
-                    e -> {
-                        try {
-                            if (stage != null) {
-                                stage.close();
-                            }
-                        } finally {
-                            Platform.exit();
-                        }
+            submit(
+                    () -> null,
+                    ignored -> {
+                        append(
+                                ChatEntry.meep(
+                                        "Bye. Hope to see you again soon!",
+                                        meepImageForType("Goodbye"),
+                                        "Goodbye"));
+                        closeAfterDelay();
                     });
-            delay.play();
             return;
         }
 
-        Pair<String, String> response = meep.getResponse(input);
+        submit(() -> meep.getResponse(input), this::showResponse);
+    }
+
+    // Runs work on the worker and hands its result to onDone on the FX thread,
+    // showing the busy indicator while anything is queued or running. The
+    // count drops even if work or onDone throws, so the indicator cannot stick
+    private <T> void submit(Supplier<T> work, Consumer<T> onDone) {
+        pending++;
+        busyIndicator.setVisible(true);
+        worker.execute(() -> {
+            Runnable reply = () -> { };
+            try {
+                T result = work.get();
+                reply = () -> onDone.accept(result);
+            } finally {
+                Runnable answer = reply;
+                Platform.runLater(() -> {
+                    try {
+                        answer.run();
+                    } finally {
+                        pending--;
+                        busyIndicator.setVisible(pending > 0);
+                    }
+                });
+            }
+        });
+    }
+
+    private void showResponse(Pair<String, String> response) {
         // If this was the help command, use the bot's help text to populate the GUI
         if ("HelpCommand".equals(response.getSecond())) {
-            new HelpWindow(response.getFirst()).show();
+            if (helpWindow == null) {
+                helpWindow = new HelpWindow(response.getFirst());
+            } else {
+                helpWindow.setHelpText(response.getFirst());
+            }
+            helpWindow.show();
         }
         // If ByeCommand came from Parser (e.g., programmatic calls), also close
         if ("ByeCommand".equals(response.getSecond())) {
             userInput.setDisable(true);
             sendButton.setDisable(true);
-            PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
-            delay.setOnFinished(
-                    e -> {
-                        try {
-                            if (stage != null) {
-                                stage.close();
-                            }
-                        } finally {
-                            Platform.exit();
-                        }
-                    });
-            delay.play();
+            closeAfterDelay();
         }
-        dialogContainer
-                .getChildren()
-                .addAll(
-                        DialogBox.getUserDialog(input, userImage),
-                        DialogBox.getMeepDialog(
-                                response.getFirst(),
-                                meepImageForType(response.getSecond()),
-                                response.getSecond()));
-        userInput.clear();
+        append(
+                ChatEntry.meep(
+                        response.getFirst(),
+                        meepImageForType(response.getSecond()),
+                        response.getSecond()));
+    }
+
+    // Adds an entry to the transcript and keeps the newest one in view
+    private void append(ChatEntry entry) {
+        transcript.getItems().add(entry);
+        transcript.scrollTo(transcript.getItems().size() - 1);
+    }
+
+    private void closeAfterDelay() {
+        PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
+        delay.setOnFinished(
+                e -> {
+                    try {
+                        if (stage != null) {
+                            stage.close();
+                        }
+                    } finally {
+                        Platform.exit();
+                    }
+                });
+        delay.play();
     }
 
     /** Returns the most suitable Meep avatar image for a given command type. */
     private Image meepImageForType(String commandType) {
         if (commandType == null) {
-            return meepHappyImage != null ? meepHappyImage : fallbackMeep();
+            return coalesce(ImageCache.get(HAPPY_IMAGE), fallbackMeep());
         }
         switch (commandType) {
             case "DeleteCommand" :
             case "UnknownCommand" :
             case "Error" :
-                return coalesce(meepSadImage, fallbackMeep());
+                return coalesce(ImageCache.get(SAD_IMAGE), fallbackMeep());
             case "HelpCommand" :
-                return coalesce(meepTalkImage, fallbackMeep());
+                return coalesce(ImageCache.get(TALK_IMAGE), fallbackMeep());
             case "MarkCommand" :
             case "UnmarkCommand" :
             case "AddMessageCommand" :
             case "AddTaskCommand" :
             case "SaveCommand" :
             case "LoadCommand" :
-                return coalesce(meepSmileImage, fallbackMeep());
+                return coalesce(ImageCache.get(SMILE_IMAGE), fallbackMeep());
             case "Goodbye" :
             case "ByeCommand" :
-                return coalesce(meepSmileImage, fallbackMeep());
+                return coalesce(ImageCache.get(SMILE_IMAGE), fallbackMeep());
             default :
-                return coalesce(meepHappyImage, fallbackMeep());
-        }
-    }
-
-    /** Attempts to load the first available resource from the provided paths. */
-    private Image loadFirstAvailable(String... resourcePaths) {
-        for (String p : resourcePaths) {
-            try {
-                var stream = this.getClass().getResourceAsStream(p);
-                if (stream != null) {
-                    return new Image(stream);
-                }
-            } catch (Exception ignored) {
-                // try next
-            }
+                return coalesce(ImageCache.get(HAPPY_IMAGE), fallbackMeep());
         }
-        return null;
     }
 
     /** Returns DaMeep.png fallback image, guaranteed non-null when available. */
     private Image fallbackMeep() {
-        Image img = loadFirstAvailable("/images/DaMeep.png");
+        Image img = ImageCache.get(FALLBACK_IMAGE);
         if (img == null) {
             // As an absolute last resort, reuse any available user image
-            return userImage;
+            return ImageCache.get(USER_IMAGE);
         }
         return img;
     }
@@ -0,0 +1,45 @@
+package meep.gui;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Optional startup trace for the GUI, enabled with
+ * {@code -Dmeep.startup.trace=true}.
+ *
+ * <p>
+ * Each {@link #mark(String)} prints the time spent since the previous mark
+ * and since the JVM started to standard error, e.g.
+ * {@code [startup] window shown +42 ms (total 612 ms)}. When tracing is off,
+ * marks do nothing.
+ */
+final class StartupTimer {
+    private static final boolean IS_ENABLED = Boolean.getBoolean("meep.startup.trace");
+    private static final long JVM_START_MILLIS = ProcessHandle.current()
+            .info()
+            .startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+    private static long lastNanos = System.nanoTime();
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Records the end of a startup phase.
+     *
+     * @param phase
+     *            short description of the phase that just finished
+     */
+    static synchronized void mark(String phase) {
+        if (!IS_ENABLED) {
+            return;
+        }
+        long nanos = System.nanoTime();
+        long phaseMillis = Duration.ofNanos(nanos - lastNanos).toMillis();
+        long totalMillis = System.currentTimeMillis() - JVM_START_MILLIS;
+        lastNanos = nanos;
+        System.err.println(
+                "[startup] " + phase + " +" + phaseMillis + " ms (total " + totalMillis + " ms)");
+    }
+}
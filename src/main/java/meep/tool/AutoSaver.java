@@ -0,0 +1,112 @@
+package meep.tool;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Saves the shared task list in the background after it changes.
+ *
+ * <p>
+ * The first change after a save schedules one write for {@code delay}
+ * milliseconds later; further changes in that window are picked up by the
+ * same write, so a burst of mutations costs a single save. Writes go through
+ * {@link Storage#saveTasks}, which replaces the file atomically.
+ *
+ * <p>
+ * Nothing is written until the list has been loaded from or saved to the task
+ * file (see {@link Storage#coversFile}); before that, a write would replace
+ * the saved tasks with only the ones added this session.
+ */
+public final class AutoSaver {
+    /** Delay used when the {@code meep.autosave} property is not set. */
+    static final long DEFAULT_DELAY_MILLIS = 2000;
+
+    private final TaskList tasks;
+    private final long delay;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean isDirty = new AtomicBoolean();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+
+    /**
+     * Creates a saver for a task list and starts listening for changes.
+     *
+     * @param tasks
+     *            list to save
+     * @param delay
+     *            milliseconds between the first unsaved change and the write
+     */
+    AutoSaver(TaskList tasks, long delay) {
+        assert tasks != null : "tasks must not be null";
+        assert delay > 0 : "delay must be positive";
+        this.tasks = tasks;
+        this.delay = delay;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "meep-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tasks.setChangeListener(this::markDirty);
+    }
+
+    /**
+     * Starts autosaving the shared task list, using the delay in milliseconds
+     * from the {@code meep.autosave} system property.
+     *
+     * @return the running saver, or null if the property is 0 or negative
+     */
+    public static AutoSaver start() {
+        long delay = Long.getLong("meep.autosave", DEFAULT_DELAY_MILLIS);
+        return delay > 0 ? new AutoSaver(Command.TASKS, delay) : null;
+    }
+
+    /** Records an unsaved change and schedules a write if none is pending. */
+    void markDirty() {
+        isDirty.set(true);
+        if (isScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::saveIfDirty, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns whether there are changes that have not been saved yet.
+     *
+     * @return true if a save is outstanding
+     */
+    boolean isDirty() {
+        return isDirty.get();
+    }
+
+    /**
+     * Stops listening, cancels any pending write and saves outstanding changes
+     * on the calling thread, if the list covers the task file.
+     *
+     * @return false if outstanding changes could not be saved
+     */
+    public boolean close() {
+        tasks.setChangeListener(() -> {});
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !isDirty.getAndSet(false)
+                || !Storage.coversFile(tasks)
+                || Storage.saveTasks(tasks, new StringBuilder());
+    }
+
+    // Clears the flags before writing, so changes made during the write
+    // schedule another one; a failed write is retried after the same delay.
+    // Changes made before the file is covered stay dirty for a later write.
+    private void saveIfDirty() {
+        isScheduled.set(false);
+        if (!Storage.coversFile(tasks) || !isDirty.getAndSet(false)) {
+            return;
+        }
+        if (!Storage.saveTasks(tasks, new StringBuilder())) {
+            markDirty();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package meep.tool;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Headless execution of a command script, one command per line.
+ *
+ * <p>
+ * Responses are streamed unframed to a caller-supplied writer, which is only
+ * flushed at the end. Every "save" in the script is deferred to a single save
+ * after the last command, and a line reading exactly "bye" ends the script
+ * early.
+ */
+public final class BatchRunner {
+    private BatchRunner() {
+    }
+
+    /**
+     * Runs every command read from {@code in} and writes their responses to
+     * {@code out}.
+     *
+     * @param in
+     *            script source; read until end of input or "bye"
+     * @param out
+     *            destination for responses, one block per command
+     * @return number of lines that failed to parse or execute
+     * @throws IOException
+     *             if reading the script or writing a response fails
+     */
+    public static int run(BufferedReader in, Writer out) throws IOException {
+        assert in != null && out != null : "reader and writer must not be null";
+        int failures = 0;
+        boolean isSavePending = false;
+        String line;
+        while ((line = in.readLine()) != null && !line.equals("bye")) {
+            boolean[] isWritten = {false};
+            try {
+                Command command = Parser.parseQuiet(line);
+                if (command instanceof Command.SaveCommand) {
+                    isSavePending = true;
+                    continue;
+                }
+                command.execute(chunk -> {
+                    write(out, chunk);
+                    isWritten[0] = true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                failures++;
+                String separator = isWritten[0] ? System.lineSeparator() : "";
+                out.write(separator + "Error: " + e.getMessage());
+                isWritten[0] = true;
+            }
+            if (isWritten[0]) {
+                out.write(System.lineSeparator());
+            }
+        }
+        if (isSavePending) {
+            out.write(new Command.SaveCommand().execute());
+            out.write(System.lineSeparator());
+        }
+        out.flush();
+        return failures;
+    }
+
+    // Lets streamed chunks reach a Writer from inside a Consumer
+    private static void write(Writer out, String chunk) {
+        try {
+            out.write(chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
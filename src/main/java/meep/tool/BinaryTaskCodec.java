@@ -0,0 +1,294 @@
+package meep.tool;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Versioned binary encoding of a task list.
+ *
+ * <p>
+ * Layout (big-endian): the magic bytes "MEEP", a version byte and the task
+ * count, followed by one record per task: type byte (T/D/E), done byte, the
+ * task's dates as epoch-day ints (none for T, one for D, two for E), then the
+ * description as an int byte length and UTF-8 bytes.
+ */
+final class BinaryTaskCodec {
+    static final byte VERSION = 1;
+    private static final byte[] MAGIC = {'M', 'E', 'E', 'P'};
+    static final int HEADER_SIZE = MAGIC.length + 1 + Integer.BYTES;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Returns whether the buffer starts with the binary format's magic bytes.
+     *
+     * @param buffer
+     *            file contents, read from index 0
+     * @return true if the content is in the binary format
+     */
+    static boolean isBinary(ByteBuffer buffer) {
+        if (buffer.limit() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes every task to the stream in the binary format.
+     *
+     * @param tasks
+     *            tasks to write
+     * @param out
+     *            destination stream
+     * @throws IOException
+     *             if writing fails
+     */
+    static void write(TaskList tasks, DataOutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        List<Task> snapshot = tasks.snapshot();
+        out.writeInt(snapshot.size());
+        for (Task task : snapshot) {
+            writeTask(task, out);
+        }
+    }
+
+    private static void writeTask(Task task, DataOutputStream out) throws IOException {
+        if (task instanceof DeadlineTask) {
+            out.writeByte('D');
+            out.writeBoolean(task.isDone());
+            out.writeInt(toEpochDay(((DeadlineTask) task).getDeadlineDate()));
+        } else if (task instanceof EventTask) {
+            EventTask eventTask = (EventTask) task;
+            out.writeByte('E');
+            out.writeBoolean(task.isDone());
+            out.writeInt(toEpochDay(eventTask.getEventStartDate()));
+            out.writeInt(toEpochDay(eventTask.getEventEndDate()));
+        } else {
+            out.writeByte('T');
+            out.writeBoolean(task.isDone());
+        }
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(description.length);
+        out.write(description);
+    }
+
+    /**
+     * Reads all records from a buffer holding a complete binary file.
+     *
+     * @param buffer
+     *            file contents starting at index 0
+     * @param tasks
+     *            list to append to, in file order
+     * @return true if every record was read; false if the file is truncated
+     * @throws IllegalArgumentException
+     *             if the version or a task type is unknown, after all preceding
+     *             records have been added
+     */
+    static boolean read(ByteBuffer buffer, TaskList tasks) {
+        assert isBinary(buffer) : "buffer must hold the binary format";
+        if (buffer.limit() < HEADER_SIZE) {
+            return false;
+        }
+        byte version = buffer.get(MAGIC.length);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported task file version: " + version);
+        }
+        int count = buffer.getInt(MAGIC.length + 1);
+        buffer.position(HEADER_SIZE);
+        byte[] scratch = new byte[256];
+        try {
+            for (int i = 0; i < count; i++) {
+                byte type = buffer.get();
+                boolean isDone = buffer.get() != 0;
+                LocalDate start = null;
+                LocalDate end = null;
+                if (type == 'D' || type == 'E') {
+                    start = LocalDate.ofEpochDay(buffer.getInt());
+                }
+                if (type == 'E') {
+                    end = LocalDate.ofEpochDay(buffer.getInt());
+                }
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    return false;
+                }
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                String description = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                tasks.addTask(buildTask(type, isDone, description, start, end));
+            }
+        } catch (BufferUnderflowException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of records a buffer holding a complete binary file
+     * declares, or -1 if the header is truncated or of another version.
+     *
+     * @param buffer
+     *            file contents starting at index 0
+     * @return declared record count, or -1
+     */
+    static int recordCount(ByteBuffer buffer) {
+        assert isBinary(buffer) : "buffer must hold the binary format";
+        if (buffer.limit() < HEADER_SIZE || buffer.get(MAGIC.length) != VERSION) {
+            return -1;
+        }
+        return buffer.getInt(MAGIC.length + 1);
+    }
+
+    /**
+     * Returns the length in bytes of the record at an absolute offset, checking
+     * that it fits in the buffer and passes the same checks as the task
+     * constructors: a known type, an event that starts before it ends and a
+     * description that is not blank. {@link #getRecord} cannot fail on a record
+     * accepted here.
+     *
+     * @param buffer
+     *            buffer holding records
+     * @param offset
+     *            start of the record
+     * @return record length, or -1 if the record is truncated or invalid
+     */
+    static int recordSize(ByteBuffer buffer, int offset) {
+        int limit = buffer.limit();
+        if (offset > limit - 2) {
+            return -1;
+        }
+        byte type = buffer.get(offset);
+        int dates = type == 'T' ? 0 : type == 'D' ? 1 : type == 'E' ? 2 : -1;
+        int lengthAt = offset + 2 + dates * Integer.BYTES;
+        if (dates < 0 || lengthAt > limit - Integer.BYTES) {
+            return -1;
+        }
+        if (dates == 2 && buffer.getInt(offset + 2) >= buffer.getInt(offset + 6)) {
+            return -1; // event must start before it ends
+        }
+        int length = buffer.getInt(lengthAt);
+        int end = lengthAt + Integer.BYTES;
+        if (length <= 0 || length > limit - end || isBlank(buffer, end, end + length)) {
+            return -1;
+        }
+        return end + length - offset;
+    }
+
+    // Matches the blank check of the Task constructor: String.trim drops chars
+    // up to U+0020, which in UTF-8 are exactly the bytes up to 0x20
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer.get(i) & 0xff) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the length in bytes a task's record would take.
+     *
+     * @param task
+     *            the task
+     * @param description
+     *            the task's description as UTF-8 bytes
+     * @return record length
+     */
+    static int recordSize(Task task, byte[] description) {
+        int dates = task instanceof DeadlineTask ? 1 : task instanceof EventTask ? 2 : 0;
+        return 2 + dates * Integer.BYTES + Integer.BYTES + description.length;
+    }
+
+    /**
+     * Writes a task's record at an absolute offset.
+     *
+     * @param buffer
+     *            destination with room for {@link #recordSize(Task, byte[])} bytes
+     * @param offset
+     *            start of the record
+     * @param task
+     *            the task
+     * @param description
+     *            the task's description as UTF-8 bytes
+     */
+    static void putRecord(ByteBuffer buffer, int offset, Task task, byte[] description) {
+        int at = offset + 2;
+        if (task instanceof DeadlineTask) {
+            buffer.put(offset, (byte) 'D');
+            buffer.putInt(at, toEpochDay(((DeadlineTask) task).getDeadlineDate()));
+            at += Integer.BYTES;
+        } else if (task instanceof EventTask) {
+            EventTask eventTask = (EventTask) task;
+            buffer.put(offset, (byte) 'E');
+            buffer.putInt(at, toEpochDay(eventTask.getEventStartDate()));
+            buffer.putInt(at + Integer.BYTES, toEpochDay(eventTask.getEventEndDate()));
+            at += 2 * Integer.BYTES;
+        } else {
+            buffer.put(offset, (byte) 'T');
+        }
+        buffer.put(offset + 1, (byte) (task.isDone() ? 1 : 0));
+        buffer.putInt(at, description.length);
+        buffer.put(at + Integer.BYTES, description);
+    }
+
+    /**
+     * Reads the valid record at an absolute offset.
+     *
+     * @param buffer
+     *            buffer holding records
+     * @param offset
+     *            start of a record accepted by {@link #recordSize(ByteBuffer, int)}
+     * @return the task
+     */
+    static Task getRecord(ByteBuffer buffer, int offset) {
+        byte type = buffer.get(offset);
+        boolean isDone = buffer.get(offset + 1) != 0;
+        int at = offset + 2;
+        LocalDate start = null;
+        LocalDate end = null;
+        if (type == 'D' || type == 'E') {
+            start = LocalDate.ofEpochDay(buffer.getInt(at));
+            at += Integer.BYTES;
+        }
+        if (type == 'E') {
+            end = LocalDate.ofEpochDay(buffer.getInt(at));
+            at += Integer.BYTES;
+        }
+        byte[] description = new byte[buffer.getInt(at)];
+        buffer.get(at + Integer.BYTES, description);
+        return buildTask(
+                type, isDone, new String(description, StandardCharsets.UTF_8), start, end);
+    }
+
+    private static Task buildTask(
+            byte type, boolean isDone, String description, LocalDate start, LocalDate end) {
+        switch (type) {
+            case 'T' :
+                return new ToDoTask(description, isDone);
+            case 'D' :
+                return new DeadlineTask(description, start, isDone);
+            case 'E' :
+                return new EventTask(description, start, end, isDone);
+            default :
+                throw new IllegalArgumentException("Unknown task type: " + (char) type);
+        }
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
@@ -0,0 +1,281 @@
+package meep.tool;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * {@link TaskStore} that keeps tasks as primitive columns instead of objects:
+ * a type tag per task, a {@link BitSet} of done flags, the dates as epoch-day
+ * ints and every description packed into one shared char array.
+ *
+ * <p>
+ * A task costs about 17 bytes plus two per description character, against
+ * several hundred for a {@link DeadlineTask} or {@link EventTask} object with
+ * its strings, dates and index entries. {@link Task} objects are only built
+ * when a caller asks for one, so {@link #get(int)} returns a new view each
+ * time; change tasks through the store, not through the view. Due checks and
+ * searches are linear scans over the columns rather than index lookups.
+ */
+final class ColumnarTaskStore implements TaskStore {
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final int INITIAL_CAPACITY = 16;
+    // Compact the description pool once this many chars are unreachable
+    private static final int MIN_GARBAGE = 1 << 16;
+
+    private int size = 0;
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private final BitSet done = new BitSet();
+    // Event start; unused for other types
+    private int[] startDays = new int[INITIAL_CAPACITY];
+    // Due date: the deadline, or the event end; unused for todos
+    private int[] dueDays = new int[INITIAL_CAPACITY];
+    private int[] descriptionStarts = new int[INITIAL_CAPACITY];
+    private int[] descriptionLengths = new int[INITIAL_CAPACITY];
+    // Append-only between compactions, so snapshots can share it
+    private char[] descriptions = new char[INITIAL_CAPACITY * 16];
+    private int descriptionsUsed = 0;
+    private int garbage = 0;
+
+    @Override
+    public void add(Task task) {
+        insert(size, task);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        if (size == types.length) {
+            grow();
+        }
+        int tail = size - index;
+        System.arraycopy(types, index, types, index + 1, tail);
+        System.arraycopy(startDays, index, startDays, index + 1, tail);
+        System.arraycopy(dueDays, index, dueDays, index + 1, tail);
+        System.arraycopy(descriptionStarts, index, descriptionStarts, index + 1, tail);
+        System.arraycopy(descriptionLengths, index, descriptionLengths, index + 1, tail);
+        for (int i = size; i > index; i--) {
+            done.set(i, done.get(i - 1));
+        }
+        if (task instanceof DeadlineTask) {
+            types[index] = DEADLINE;
+            dueDays[index] = toDay(((DeadlineTask) task).getDeadlineDate());
+        } else if (task instanceof EventTask) {
+            EventTask eventTask = (EventTask) task;
+            types[index] = EVENT;
+            startDays[index] = toDay(eventTask.getEventStartDate());
+            dueDays[index] = toDay(eventTask.getEventEndDate());
+        } else {
+            types[index] = TODO;
+        }
+        done.set(index, task.isDone());
+        String description = task.getDescription();
+        ensureDescriptionCapacity(description.length());
+        description.getChars(0, description.length(), descriptions, descriptionsUsed);
+        descriptionStarts[index] = descriptionsUsed;
+        descriptionLengths[index] = description.length();
+        descriptionsUsed += description.length();
+        size++;
+    }
+
+    @Override
+    public void remove(int index) {
+        Objects.checkIndex(index, size);
+        garbage += descriptionLengths[index];
+        int tail = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, tail);
+        System.arraycopy(startDays, index + 1, startDays, index, tail);
+        System.arraycopy(dueDays, index + 1, dueDays, index, tail);
+        System.arraycopy(descriptionStarts, index + 1, descriptionStarts, index, tail);
+        System.arraycopy(descriptionLengths, index + 1, descriptionLengths, index, tail);
+        for (int i = index; i < size - 1; i++) {
+            done.set(i, done.get(i + 1));
+        }
+        size--;
+        done.clear(size);
+        if (garbage >= MIN_GARBAGE && garbage > descriptionsUsed / 2) {
+            compactDescriptions();
+        }
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        done.clear();
+        // Drop the pool rather than reuse it: snapshots may still share it
+        descriptions = new char[INITIAL_CAPACITY * 16];
+        descriptionsUsed = 0;
+        garbage = 0;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        return materialize(
+                types[index],
+                done.get(index),
+                startDays[index],
+                dueDays[index],
+                new String(descriptions, descriptionStarts[index], descriptionLengths[index]));
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        Objects.checkIndex(index, size);
+        done.set(index, isDone);
+        return get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Task> dueBefore(LocalDate date) {
+        int day = toDay(date);
+        List<Task> due = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (types[i] != TODO && dueDays[i] < day && !done.get(i)) {
+                due.add(get(i));
+            }
+        }
+        return due;
+    }
+
+    @Override
+    public List<Task> find(String needle) {
+        char[] target = needle.toCharArray();
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (contains(descriptionStarts[i], descriptionLengths[i], target)) {
+                matches.add(get(i));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public List<Task> snapshot() {
+        return new Snapshot(this);
+    }
+
+    private boolean contains(int start, int length, char[] target) {
+        if (target.length == 0) {
+            return true;
+        }
+        char first = target[0];
+        int last = start + length - target.length;
+        for (int i = start; i <= last; i++) {
+            if (descriptions[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length && descriptions[i + j] == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        startDays = Arrays.copyOf(startDays, capacity);
+        dueDays = Arrays.copyOf(dueDays, capacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+    }
+
+    private void ensureDescriptionCapacity(int extra) {
+        int needed = descriptionsUsed + extra;
+        if (needed > descriptions.length) {
+            descriptions = Arrays.copyOf(descriptions, Math.max(needed, descriptions.length * 2));
+        }
+    }
+
+    // Copies the live descriptions into a fresh pool; the old one stays intact
+    // for any snapshot still reading it
+    private void compactDescriptions() {
+        char[] compacted = new char[Math.max(INITIAL_CAPACITY * 16, descriptionsUsed - garbage)];
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            int length = descriptionLengths[i];
+            System.arraycopy(descriptions, descriptionStarts[i], compacted, used, length);
+            descriptionStarts[i] = used;
+            used += length;
+        }
+        descriptions = compacted;
+        descriptionsUsed = used;
+        garbage = 0;
+    }
+
+    private static Task materialize(
+            byte type, boolean isDone, int startDay, int dueDay, String description) {
+        switch (type) {
+            case DEADLINE :
+                return new DeadlineTask(description, LocalDate.ofEpochDay(dueDay), isDone);
+            case EVENT :
+                return new EventTask(
+                        description,
+                        LocalDate.ofEpochDay(startDay),
+                        LocalDate.ofEpochDay(dueDay),
+                        isDone);
+            default :
+                return new ToDoTask(description, isDone);
+        }
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    /** Copy of the columns at one point in time; tasks are built on access. */
+    private static final class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final int size;
+        private final byte[] types;
+        private final BitSet done;
+        private final int[] startDays;
+        private final int[] dueDays;
+        private final int[] descriptionStarts;
+        private final int[] descriptionLengths;
+        private final char[] descriptions;
+
+        Snapshot(ColumnarTaskStore store) {
+            size = store.size;
+            types = Arrays.copyOf(store.types, size);
+            done = store.done.get(0, size);
+            startDays = Arrays.copyOf(store.startDays, size);
+            dueDays = Arrays.copyOf(store.dueDays, size);
+            descriptionStarts = Arrays.copyOf(store.descriptionStarts, size);
+            descriptionLengths = Arrays.copyOf(store.descriptionLengths, size);
+            descriptions = store.descriptions;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            return materialize(
+                    types[index],
+                    done.get(index),
+                    startDays[index],
+                    dueDays[index],
+                    new String(descriptions, descriptionStarts[index], descriptionLengths[index]));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package meep.tool;
 
-import java.time.format.DateTimeParseException;
+import java.io.File;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Central command handler for Meep.
@@ -12,8 +14,21 @@ import java.util.List;
  */
 public abstract class Command {
     // Shared application state for all commands
-    protected static final MessageList MESSAGES = new MessageList();
+    protected static final MessageList MESSAGES =
+            new MessageList(MessageList.DEFAULT_CAPACITY, new File("data/meep-history.txt"));
     protected static final TaskList TASKS = new TaskList();
+    private static volatile DuplicatePolicy duplicatePolicy = DuplicatePolicy.fromProperty();
+
+    /**
+     * Selects how later adds and loads treat duplicate tasks.
+     *
+     * @param policy
+     *            allow, reject or merge duplicates
+     */
+    static void setDuplicatePolicy(DuplicatePolicy policy) {
+        assert policy != null : "policy must not be null";
+        duplicatePolicy = policy;
+    }
 
     /**
      * Executes the command and returns the response text.
@@ -22,6 +37,39 @@ public abstract class Command {
      */
     public abstract String execute();
 
+    /**
+     * Executes the command, passing its response to {@code out} in one or more
+     * chunks that concatenate to the {@link #execute()} result. Nothing is
+     * passed for an empty response.
+     *
+     * @param out
+     *            receives response chunks in order
+     */
+    public void execute(Consumer<String> out) {
+        String response = execute();
+        if (!response.isEmpty()) {
+            out.accept(response);
+        }
+    }
+
+    /**
+     * Base for commands whose output grows with the list size. They produce
+     * their response a line at a time, so it never needs to be held in memory
+     * when written straight to a sink.
+     */
+    abstract static class StreamingCommand extends Command {
+        /** Collects the streamed chunks into one response. */
+        @Override
+        public final String execute() {
+            StringBuilder response = new StringBuilder();
+            execute(response::append);
+            return response.toString();
+        }
+
+        @Override
+        public abstract void execute(Consumer<String> out);
+    }
+
     /** Adds a raw input message to the message list. */
     static class AddMessageCommand extends Command {
         private final String message;
@@ -67,30 +115,87 @@ public abstract class Command {
         }
     }
 
-    /** Lists all messages recorded. */
-    static class ListMessagesCommand extends Command {
-        /** Builds the list of recorded messages. */
+    /** Lists recorded messages, optionally only a 1-based range of them. */
+    static class ListMessagesCommand extends StreamingCommand {
+        private final int first;
+        private final int last;
+
+        /** Creates a command listing every message. */
+        ListMessagesCommand() {
+            this(1, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Creates a command listing messages {@code first} to {@code last}.
+         *
+         * @param first
+         *            1-based number of the first message, inclusive
+         * @param last
+         *            1-based number of the last message, inclusive
+         */
+        ListMessagesCommand(int first, int last) {
+            assert first >= 1 && first <= last : "range must be 1-based and ordered";
+            this.first = first;
+            this.last = last;
+        }
+
+        /** Streams the list of recorded messages. */
         @Override
-        public String execute() {
-            StringBuilder response = new StringBuilder();
-            response.append("Here are all the messages I've received:");
-            MESSAGES.iterateMessages((msg, idx) -> response.append("\n " + (idx + 1) + ". " + msg));
-            response.append("\nTip: type 'help' anytime to see what I can do.");
-            return response.toString();
+        public void execute(Consumer<String> out) {
+            out.accept(
+                    last == Integer.MAX_VALUE
+                            ? "Here are all the messages I've received:"
+                            : "Here are messages " + first + "-" + last + ":");
+            StringBuilder line = new StringBuilder();
+            MESSAGES.formatMessages(
+                    first - 1,
+                    last,
+                    (msg, idx) -> {
+                        line.setLength(0);
+                        line.append("\n ").append(idx + 1).append(". ").append(msg);
+                        out.accept(line.toString());
+                    });
+            out.accept("\nTip: type 'help' anytime to see what I can do.");
         }
     }
 
-    /** Lists all tasks with count. */
-    static class ListTasksCommand extends Command {
-        /** Builds the list of tasks with count. */
+    /** Lists tasks with count, optionally only a 1-based range of them. */
+    static class ListTasksCommand extends StreamingCommand {
+        private final int first;
+        private final int last;
+
+        /** Creates a command listing every task. */
+        ListTasksCommand() {
+            this(1, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Creates a command listing tasks {@code first} to {@code last}.
+         *
+         * @param first
+         *            1-based number of the first task, inclusive
+         * @param last
+         *            1-based number of the last task, inclusive
+         */
+        ListTasksCommand(int first, int last) {
+            assert first >= 1 && first <= last : "range must be 1-based and ordered";
+            this.first = first;
+            this.last = last;
+        }
+
+        /** Streams the list of tasks with count. */
         @Override
-        public String execute() {
-            StringBuilder response = new StringBuilder();
-            response.append("Here are all the tasks:");
-            TASKS.iterateTasks((task, index) -> response.append("\n " + (index + 1) + ". " + task));
-            response.append("\nNow you have " + TASKS.size() + " tasks in the list.");
-            response.append("\nPro tip: use 'save' to back up your changes.");
-            return response.toString();
+        public void execute(Consumer<String> out) {
+            out.accept(
+                    last == Integer.MAX_VALUE
+                            ? "Here are all the tasks:"
+                            : "Here are tasks " + first + "-" + last + ":");
+            TASKS.iterateTasks(
+                    first - 1,
+                    last,
+                    (task, index) -> out.accept("\n " + (index + 1) + ". " + task));
+            out.accept("\nNow you have " + TASKS.size() + " tasks in the list.");
+            out.accept("\nPro tip: use 'save' to back up your changes.");
         }
     }
 
@@ -114,8 +219,8 @@ public abstract class Command {
             StringBuilder response = new StringBuilder();
             try {
                 int index = taskNumber - 1;
-                TASKS.get(index).markDone();
-                response.append("Task " + taskNumber + " marked as done.\n" + TASKS.get(index));
+                Task task = Storage.markDone(TASKS, index);
+                response.append("Task " + taskNumber + " marked as done.\n" + task);
             } catch (NumberFormatException | IndexOutOfBoundsException e) {
                 return ""; // maintain prior behavior: no output on invalid index
             }
@@ -144,8 +249,8 @@ public abstract class Command {
             StringBuilder response = new StringBuilder();
             try {
                 int index = taskNumber - 1;
-                TASKS.get(index).markNotDone();
-                response.append("Task " + taskNumber + " marked as not done.\n" + TASKS.get(index));
+                Task task = Storage.markNotDone(TASKS, index);
+                response.append("Task " + taskNumber + " marked as not done.\n" + task);
             } catch (NumberFormatException | IndexOutOfBoundsException e) {
                 return ""; // maintain prior behavior: no output on invalid index
             }
@@ -174,7 +279,7 @@ public abstract class Command {
             StringBuilder response = new StringBuilder();
             try {
                 int index = taskNumber - 1;
-                TASKS.removeTask(index);
+                Storage.removeTask(TASKS, index);
                 response.append("Task " + taskNumber + " deleted.");
             } catch (NumberFormatException | IndexOutOfBoundsException e) {
                 return ""; // maintain prior behavior: no output on invalid index
@@ -208,8 +313,10 @@ public abstract class Command {
             Pair<Task, Exception> buildPair = Task.buildTask(message);
             if (buildPair.getSecond() != null) {
                 response.append(buildPair.getSecond().getMessage());
+            } else if (!Storage.addTask(TASKS, buildPair.getFirst(), duplicatePolicy)) {
+                response.append("You already have this task, so I left the list as is:\n"
+                        + buildPair.getFirst());
             } else {
-                TASKS.addTask(buildPair.getFirst());
                 response.append("Got it. I've added this task:\n" + buildPair.getFirst());
                 response.append("\nNow you have " + TASKS.size() + " tasks in the list.");
             }
@@ -239,13 +346,38 @@ public abstract class Command {
 
     /** Loads tasks from storage. */
     static class LoadCommand extends Command {
+        private final boolean isMerge;
+
+        /** Creates a load that treats duplicates as the configured policy says. */
+        LoadCommand() {
+            this(false);
+        }
+
+        /**
+         * Creates a load command.
+         *
+         * @param isMerge
+         *            whether to merge the file into the list ("load merge")
+         *            whatever the configured duplicate policy
+         */
+        LoadCommand(boolean isMerge) {
+            this.isMerge = isMerge;
+        }
+
         /** Loads tasks from storage and returns a status message. */
         @Override
         public String execute() {
             StringBuilder response = new StringBuilder();
-            boolean flag = Storage.loadTasks(TASKS, response);
-            if (flag) {
+            DuplicatePolicy policy = isMerge ? DuplicatePolicy.MERGE : duplicatePolicy;
+            Pair<Boolean, TaskList.MergeResult> loadPair =
+                    Storage.loadTasks(TASKS, policy, response);
+            TaskList.MergeResult result = loadPair.getSecond();
+            if (loadPair.getFirst()) {
                 response.append("Tasks loaded successfully.");
+                if (result.skipped > 0) {
+                    response.append("\nAdded " + result.added + ", skipped " + result.skipped
+                            + " already listed, updated " + result.updated + ".");
+                }
                 response.append("\nYou're up to date.");
             } else {
                 response.append("Error loading tasks.");
@@ -277,30 +409,23 @@ public abstract class Command {
         public String execute() {
             StringBuilder response = new StringBuilder();
             String time = message.substring(9).trim();
-            String processedTime = Task.printTime(time);
-
             if (!Task.checkTimeValid(time)) {
                 response.append("Invalid date format. Please use: " + Task.getInputDtfPattern());
                 return response.toString();
             }
+            LocalDate date = Task.parseDate(time);
+            String processedTime = Task.formatDate(date);
 
             // Tests expect this preface line
             response.append("Checking for due tasks on ").append(processedTime).append("...");
+            int prefaceLength = response.length();
 
-            TASKS.iterateTasks(
-                    task -> {
-                        try {
-                            if (task.isDue(time)) {
-                                response.append("\n").append(task.toString());
-                            }
-                        } catch (DateTimeParseException e) {
-                            response.append("\nUnable to check due for task: " + task);
-                        }
-                    });
+            // Range query over the due-date index: only not-done, dated tasks
+            TASKS.dueBefore(date).forEach(task -> response.append("\n").append(task));
             // Keep additional summary header if there are due tasks; otherwise print a
             // clear none
             // message
-            if (response.toString().lines().count() == 1) { // only the preface line
+            if (response.length() == prefaceLength) { // only the preface line
                 response.append("\nNo tasks are due before ").append(processedTime).append(".");
             } else {
                 response.append("\n");
@@ -321,7 +446,9 @@ public abstract class Command {
             response.append("\nhello:\n\tGreet the program! be polite :)");
             response.append("\nhow are you?:\n\tAsk the program how it is doing");
             response.append("\nlist messages:\n\tList all messages received");
+            response.append("\nlist messages <from>-<to>:\n\tList only messages from..to");
             response.append("\nlist:\n\tList all tasks");
+            response.append("\nlist <from>-<to>:\n\tList only tasks from..to (e.g. list 100-200)");
             response.append("\nhelp:\n\tShow this help message");
             response.append("\ntodo <todo description>: \n\tAdd a Todo Task to task list");
             response.append(
@@ -381,7 +508,7 @@ public abstract class Command {
     }
 
     /** Finds tasks containing a substring (case-sensitive). */
-    static class FindCommand extends Command {
+    static class FindCommand extends StreamingCommand {
         private final String needle;
 
         /**
@@ -395,30 +522,20 @@ public abstract class Command {
             this.needle = needle;
         }
 
-        /** Searches tasks and returns the formatted list of matches. */
+        /** Searches tasks and streams the formatted list of matches. */
         @Override
-        public String execute() {
-            StringBuilder response = new StringBuilder();
-            List<Task> matches =
-                    TASKS.stream().filter(task -> task.checkDescriptionContains(needle)).toList();
+        public void execute(Consumer<String> out) {
+            List<Task> matches = TASKS.find(needle);
 
             if (matches.isEmpty()) {
-                response.append("No tasks found matching: \"").append(needle).append("\"");
-            } else {
-                response.append("Found the following tasks matching: \"")
-                        .append(needle)
-                        .append("\"");
-                matches.stream()
-                        .forEach(
-                                task -> {
-                                    response.append("\n")
-                                            .append(matches.indexOf(task) + 1)
-                                            .append(") ")
-                                            .append(task);
-                                });
+                out.accept("No tasks found matching: \"" + needle + "\"");
+                return;
+            }
+            out.accept("Found the following tasks matching: \"" + needle + "\"");
+            int position = 0;
+            for (Task task : matches) {
+                out.accept("\n" + (++position) + ") " + task);
             }
-
-            return response.toString();
         }
     }
 
@@ -5,7 +5,9 @@ import java.time.format.DateTimeParseException;
 
 /** Deadline task with a due date. */
 class DeadlineTask extends Task {
-    private String deadline;
+    private final String deadline;
+    private final LocalDate deadlineDate;
+    private String deadlineDisplay; // formatted lazily on first toString
 
     /**
      * Extracts the deadline value from a command string.
@@ -47,7 +49,7 @@ class DeadlineTask extends Task {
                     "Deadline cannot be null or empty: Please specify deadline time with /by");
         }
         try {
-            LocalDate.parse(deadline, Task.getInputFormatter());
+            this.deadlineDate = LocalDate.parse(deadline, Task.getInputFormatter());
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException(
                     "Invalid date format. Please use: " + Task.getInputDtfPattern());
@@ -55,28 +57,44 @@ class DeadlineTask extends Task {
         this.deadline = deadline;
     }
 
+    /** Creates a Deadline task from an already-parsed date. */
+    DeadlineTask(String task, LocalDate deadline, boolean isDone) {
+        super(task, isDone);
+        assert deadline != null : "deadline must not be null";
+        this.deadlineDate = deadline;
+        this.deadline = deadline.format(Task.getInputFormatter());
+    }
+
     /** Returns the deadline date string. */
     public String getDeadline() {
         assert deadline != null && !deadline.isEmpty() : "deadline must be initialized";
         return deadline;
     }
 
+    /** Returns the parsed deadline date. */
+    LocalDate getDeadlineDate() {
+        return deadlineDate;
+    }
+
+    /** Returns the deadline as the due date. */
+    @Override
+    LocalDate getDueDate() {
+        return deadlineDate;
+    }
+
     /** Determines if this deadline is due before the given date. */
     @Override
-    public boolean isDue(String time) {
-        assert time != null : "time must not be null";
-        try {
-            return !isDone()
-                    && LocalDate.parse(time, Task.getInputFormatter())
-                            .isAfter(LocalDate.parse(getDeadline(), Task.getInputFormatter()));
-        } catch (Exception e) {
-            return false;
-        }
+    public boolean isDue(LocalDate date) {
+        assert date != null : "date must not be null";
+        return !isDone() && date.isAfter(deadlineDate);
     }
 
     /** String form prefixed with [D] and printed deadline. */
     @Override
     public String toString() {
-        return "[D]" + super.toString() + " (by: " + Task.printTime(getDeadline()) + ")";
+        if (deadlineDisplay == null) {
+            deadlineDisplay = Task.formatDate(deadlineDate);
+        }
+        return "[D]" + super.toString() + " (by: " + deadlineDisplay + ")";
     }
 }
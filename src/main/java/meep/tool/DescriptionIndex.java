@@ -0,0 +1,105 @@
+package meep.tool;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over task descriptions for case-sensitive substring search.
+ *
+ * <p>
+ * Every run of three characters in a description maps to the tasks containing
+ * it. A needle of three or more characters can only occur in tasks holding all
+ * of its trigrams, so a search walks the smallest of those posting sets and
+ * confirms each candidate with {@link Task#checkDescriptionContains(String)}.
+ * Posting sets keep insertion order, which is list order for appended tasks.
+ */
+final class DescriptionIndex {
+    private static final int GRAM = 3;
+
+    private final Map<Long, Set<Task>> postings = new HashMap<>();
+
+    /**
+     * Indexes every trigram of the task's description.
+     *
+     * @param task
+     *            task to index
+     */
+    void add(Task task) {
+        String description = task.getDescription();
+        for (int i = 0; i + GRAM <= description.length(); i++) {
+            postings.computeIfAbsent(gram(description, i), key -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from every posting set it belongs to.
+     *
+     * @param task
+     *            task to drop
+     */
+    void remove(Task task) {
+        String description = task.getDescription();
+        for (int i = 0; i + GRAM <= description.length(); i++) {
+            long key = gram(description, i);
+            Set<Task> tasks = postings.get(key);
+            if (tasks != null && tasks.remove(task) && tasks.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /** Removes every task from the index. */
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Returns whether the needle is long enough to be answered from the index.
+     *
+     * @param needle
+     *            search text
+     * @return true if {@link #find(String)} can be used
+     */
+    static boolean canSearch(String needle) {
+        return needle.length() >= GRAM;
+    }
+
+    /**
+     * Returns the tasks whose description contains the needle, in list order.
+     *
+     * @param needle
+     *            search text of at least three characters
+     * @return matching tasks
+     */
+    List<Task> find(String needle) {
+        assert canSearch(needle) : "needle too short for the trigram index";
+        Set<Task> smallest = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            Set<Task> tasks = postings.get(gram(needle, i));
+            if (tasks == null) {
+                return List.of();
+            }
+            if (smallest == null || tasks.size() < smallest.size()) {
+                smallest = tasks;
+            }
+        }
+        List<Task> matches = new ArrayList<>();
+        for (Task task : smallest) {
+            if (task.checkDescriptionContains(needle)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    // Packs three UTF-16 chars into one key
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32)
+                | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+}
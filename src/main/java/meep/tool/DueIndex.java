@@ -0,0 +1,75 @@
+package meep.tool;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Secondary index of not-done tasks keyed by due date (epoch day), so due
+ * checks only visit tasks that can actually be due.
+ */
+final class DueIndex {
+    private final TreeMap<Long, Set<Task>> byDay = new TreeMap<>();
+
+    /**
+     * Indexes a task if it has a due date and is not done.
+     *
+     * @param task
+     *            task to index
+     */
+    void add(Task task) {
+        LocalDate due = task.getDueDate();
+        if (due == null || task.isDone()) {
+            return;
+        }
+        byDay.computeIfAbsent(due.toEpochDay(), day -> new LinkedHashSet<>()).add(task);
+    }
+
+    /**
+     * Removes a task from the index if present.
+     *
+     * @param task
+     *            task to drop
+     */
+    void remove(Task task) {
+        LocalDate due = task.getDueDate();
+        if (due == null) {
+            return;
+        }
+        Set<Task> tasks = byDay.get(due.toEpochDay());
+        if (tasks != null && tasks.remove(task) && tasks.isEmpty()) {
+            byDay.remove(due.toEpochDay());
+        }
+    }
+
+    /** Removes every task from the index. */
+    void clear() {
+        byDay.clear();
+    }
+
+    /**
+     * Returns the not-done tasks due strictly before the given date, earliest
+     * first and in insertion order within a day.
+     *
+     * @param date
+     *            reference date
+     * @return matching tasks
+     */
+    List<Task> dueBefore(LocalDate date) {
+        List<Task> due = new ArrayList<>();
+        for (Map.Entry<Long, Set<Task>> entry :
+                byDay.headMap(date.toEpochDay(), false).entrySet()) {
+            for (Task task : entry.getValue()) {
+                // tasks marked done directly (not via TaskList) are still indexed
+                if (!task.isDone()) {
+                    due.add(task);
+                }
+            }
+        }
+        return due;
+    }
+}
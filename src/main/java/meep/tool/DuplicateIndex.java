@@ -0,0 +1,208 @@
+package meep.tool;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Counts tasks by content, meaning type, description and dates, so duplicate
+ * checks take one hash lookup instead of formatting every task.
+ *
+ * <p>
+ * The done flag is not part of the key; each entry also counts how many of its
+ * tasks are done, which {@link #setDone(Task, boolean, boolean)} keeps current.
+ * For a store that holds task objects, each entry also keeps the tasks
+ * themselves, so they can be changed without searching the list.
+ */
+final class DuplicateIndex {
+    private final boolean keepsTasks;
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param keepsTasks
+     *            whether to keep the indexed task objects, which must then be
+     *            the ones the store holds
+     */
+    DuplicateIndex(boolean keepsTasks) {
+        this.keepsTasks = keepsTasks;
+    }
+
+    /**
+     * Counts a task.
+     *
+     * @param task
+     *            task to count
+     */
+    void add(Task task) {
+        Entry entry = entries.computeIfAbsent(Key.of(task), key -> new Entry(keepsTasks));
+        entry.count++;
+        entry.done += task.isDone() ? 1 : 0;
+        if (keepsTasks) {
+            entry.tasks.add(task);
+        }
+    }
+
+    /**
+     * Uncounts a task.
+     *
+     * @param task
+     *            task being removed, with its current done flag
+     */
+    void remove(Task task) {
+        Key key = Key.of(task);
+        Entry entry = entries.get(key);
+        assert entry != null && entry.count > 0 : "task was not indexed";
+        entry.done -= task.isDone() ? 1 : 0;
+        if (keepsTasks) {
+            // By identity: equal-looking tasks are still different tasks
+            for (int i = 0; i < entry.tasks.size(); i++) {
+                if (entry.tasks.get(i) == task) {
+                    entry.tasks.remove(i);
+                    break;
+                }
+            }
+        }
+        if (--entry.count == 0) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Records a change to a task's done flag.
+     *
+     * @param task
+     *            task that was marked or unmarked
+     * @param wasDone
+     *            done flag before the change
+     * @param isDone
+     *            done flag after the change
+     */
+    void setDone(Task task, boolean wasDone, boolean isDone) {
+        if (wasDone != isDone) {
+            entries.get(Key.of(task)).done += isDone ? 1 : -1;
+        }
+    }
+
+    /**
+     * Checks for a task with the same content, whether done or not.
+     *
+     * @param task
+     *            task to look for
+     * @return true if a matching task is counted
+     */
+    boolean containsContent(Task task) {
+        return entries.containsKey(Key.of(task));
+    }
+
+    /**
+     * Checks for a task with the same content and done flag.
+     *
+     * @param task
+     *            task to look for
+     * @return true if a matching task is counted
+     */
+    boolean contains(Task task) {
+        Entry entry = entries.get(Key.of(task));
+        if (entry == null) {
+            return false;
+        }
+        return task.isDone() ? entry.done > 0 : entry.count > entry.done;
+    }
+
+    /**
+     * Checks whether setting a done flag on every task with the given content
+     * would change any of them.
+     *
+     * @param key
+     *            content to look for
+     * @param isDone
+     *            done flag to set
+     * @return true if some counted task with that content has the other flag
+     */
+    boolean differsFrom(Key key, boolean isDone) {
+        Entry entry = entries.get(key);
+        return entry != null && (isDone ? entry.done < entry.count : entry.done > 0);
+    }
+
+    /**
+     * Returns the indexed tasks with the given content.
+     *
+     * @param key
+     *            content to look for
+     * @return the tasks, in the order they were indexed
+     */
+    List<Task> tasks(Key key) {
+        assert keepsTasks : "index does not keep tasks";
+        Entry entry = entries.get(key);
+        return entry == null ? List.of() : entry.tasks;
+    }
+
+    /** Counts, and for stores that hold objects the tasks, for one key. */
+    private static final class Entry {
+        private int count;
+        private int done;
+        private final List<Task> tasks;
+
+        Entry(boolean keepsTasks) {
+            tasks = keepsTasks ? new ArrayList<>(1) : null;
+        }
+    }
+
+    /** Task content compared by a duplicate check. */
+    static final class Key {
+        private final Class<?> type;
+        private final String description;
+        private final LocalDate start;
+        private final LocalDate due;
+        // Cached: keys are built for every lookup and hashed at least once
+        private final int hash;
+
+        private Key(Class<?> type, String description, LocalDate start, LocalDate due) {
+            this.type = type;
+            this.description = description;
+            this.start = start;
+            this.due = due;
+            this.hash = Objects.hash(type.getName(), description, start, due);
+        }
+
+        /**
+         * Returns the content key of a task.
+         *
+         * @param task
+         *            task to key
+         * @return key that ignores the done flag
+         */
+        static Key of(Task task) {
+            LocalDate start = task instanceof EventTask
+                    ? ((EventTask) task).getEventStartDate()
+                    : null;
+            return new Key(task.getClass(), task.getDescription(), start, task.getDueDate());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash
+                    && type == key.type
+                    && description.equals(key.description)
+                    && Objects.equals(start, key.start)
+                    && Objects.equals(due, key.due);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package meep.tool;
+
+import java.util.Locale;
+
+/**
+ * How adding and loading treat a task whose type, description and dates match
+ * one already in the list. Chosen with {@code -Dmeep.duplicates}:
+ * {@code allow} (default), {@code reject} or {@code merge}.
+ */
+enum DuplicatePolicy {
+    /** Add the task anyway. */
+    ALLOW,
+    /** Keep the existing task and drop the new one. */
+    REJECT,
+    /**
+     * Keep the existing task; a loaded task's done flag replaces the existing
+     * one. Adding a task by command behaves as {@link #REJECT}.
+     */
+    MERGE;
+
+    /**
+     * Returns the policy selected by the {@code meep.duplicates} system property.
+     *
+     * @return the configured policy
+     * @throws IllegalArgumentException
+     *             if the property names no policy
+     */
+    static DuplicatePolicy fromProperty() {
+        String policy = System.getProperty("meep.duplicates", "allow");
+        return valueOf(policy.toUpperCase(Locale.ROOT));
+    }
+}
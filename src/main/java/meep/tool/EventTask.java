@@ -5,8 +5,11 @@ import java.time.format.DateTimeParseException;
 
 /** Event task spanning a start and end date. */
 class EventTask extends Task {
-    private String eventStartTime;
-    private String eventEndTime;
+    private final String eventStartTime;
+    private final String eventEndTime;
+    private final LocalDate eventStartDate;
+    private final LocalDate eventEndDate;
+    private String rangeDisplay; // formatted lazily on first toString
 
     /**
      * Creates an Event task from a raw command string containing "/from" and "/to".
@@ -49,6 +52,21 @@ class EventTask extends Task {
         }
         this.eventStartTime = eventStartTime;
         this.eventEndTime = eventEndTime;
+        this.eventStartDate = start;
+        this.eventEndDate = end;
+    }
+
+    /** Creates an Event task from already-parsed dates. */
+    EventTask(String task, LocalDate eventStartDate, LocalDate eventEndDate, boolean isDone) {
+        super(task, isDone);
+        assert eventStartDate != null && eventEndDate != null : "event dates must not be null";
+        if (!eventStartDate.isBefore(eventEndDate)) {
+            throw new IllegalArgumentException("Event start must be before end");
+        }
+        this.eventStartDate = eventStartDate;
+        this.eventEndDate = eventEndDate;
+        this.eventStartTime = eventStartDate.format(Task.getInputFormatter());
+        this.eventEndTime = eventEndDate.format(Task.getInputFormatter());
     }
 
     /** Extracts the event start time from a command string. */
@@ -97,28 +115,40 @@ class EventTask extends Task {
         return eventEndTime;
     }
 
+    /** Returns the parsed event start date. */
+    LocalDate getEventStartDate() {
+        return eventStartDate;
+    }
+
+    /** Returns the parsed event end date. */
+    LocalDate getEventEndDate() {
+        return eventEndDate;
+    }
+
+    /** Returns the event end as the due date. */
+    @Override
+    LocalDate getDueDate() {
+        return eventEndDate;
+    }
+
     /** Determines if the event ends before the given date. */
     @Override
-    public boolean isDue(String time) {
-        assert time != null : "time must not be null";
-        try {
-            return !isDone()
-                    && LocalDate.parse(time, Task.getInputFormatter())
-                            .isAfter(LocalDate.parse(getEventEndTime(), Task.getInputFormatter()));
-        } catch (Exception e) {
-            return false;
-        }
+    public boolean isDue(LocalDate date) {
+        assert date != null : "date must not be null";
+        return !isDone() && date.isAfter(eventEndDate);
     }
 
     /** String form prefixed with [E] including printed start and end. */
     @Override
     public String toString() {
-        return "[E]"
-                + super.toString()
-                + " (from: "
-                + Task.printTime(getEventStartTime())
-                + " to: "
-                + Task.printTime(getEventEndTime())
-                + ")";
+        if (rangeDisplay == null) {
+            rangeDisplay =
+                    " (from: "
+                            + Task.formatDate(eventStartDate)
+                            + " to: "
+                            + Task.formatDate(eventEndDate)
+                            + ")";
+        }
+        return "[E]" + super.toString() + rangeDisplay;
     }
 }
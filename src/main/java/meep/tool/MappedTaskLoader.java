@@ -0,0 +1,356 @@
+package meep.tool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads task files straight from a byte buffer. Pipe-delimited text (e.g.
+ * |T|0|desc|) and {@link BinaryTaskCodec} files are told apart by their first
+ * bytes.
+ *
+ * <p>
+ * Large files are memory-mapped; small ones are read into a heap buffer so the
+ * file is not left mapped (which would block later saves on some platforms).
+ * Records are scanned byte by byte and handed to {@link Task#fromFields} with
+ * the same field rules as {@link Task#load(String)}, without building
+ * intermediate split arrays. Text files of several MiB are cut into
+ * newline-aligned ranges that are parsed in parallel.
+ *
+ * <p>
+ * {@link #loadChanged(File, long[], List)} hashes every record instead and
+ * only parses those whose hash it was not given, so rereading a file costs
+ * one pass over its bytes plus the parsing of what changed.
+ */
+final class MappedTaskLoader {
+    private static final long MAP_THRESHOLD = 1 << 20;
+    private static final int MAX_WINDOW = Integer.MAX_VALUE;
+    private static final int PARALLEL_THRESHOLD = 8 << 20;
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    // Save strings only use the first five fields: leading, type, done, desc, when
+    private static final int FIELDS = 5;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Charset charset = Charset.defaultCharset();
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private byte[] scratch = new byte[256];
+
+    private MappedTaskLoader() {
+    }
+
+    /**
+     * Loads every record in the file into the task list, in file order.
+     *
+     * @param file
+     *            the task file
+     * @param tasks
+     *            list to append to
+     * @return true if the whole file was read; false on a read error or a record
+     *         that does not fit in a single mapping window
+     * @throws IllegalArgumentException
+     *             if a record has an unknown type or invalid values, after all
+     *             preceding records have been added
+     */
+    static boolean load(File file, TaskList tasks) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new MappedTaskLoader().loadFrom(channel, tasks);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads every record in the file but only parses those whose hash is not in
+     * {@code known}, e.g. the records that changed since an earlier read.
+     *
+     * @param file
+     *            the task file
+     * @param known
+     *            sorted hashes of records to skip, as returned by an earlier call
+     * @param changed
+     *            receives the parsed records, in file order
+     * @return sorted hashes of every record in the file, or null on a read error,
+     *         a truncated binary file or a record larger than a mapping window
+     * @throws IllegalArgumentException
+     *             if a parsed record has an unknown type or invalid values, after
+     *             all preceding parsed records have been added
+     */
+    static long[] loadChanged(File file, long[] known, List<Task> changed) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new MappedTaskLoader().loadChangedFrom(channel, known, changed);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long[] loadChangedFrom(FileChannel channel, long[] known, List<Task> changed)
+            throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long[] hashes = new long[16];
+        int count = 0;
+        while (position < size) {
+            int length = (int) Math.min(size - position, MAX_WINDOW);
+            boolean isLastWindow = position + length == size;
+            ByteBuffer buffer = window(channel, position, length);
+            if (position == 0 && BinaryTaskCodec.isBinary(buffer)) {
+                return isLastWindow ? changedRecords(buffer, known, changed) : null;
+            }
+            int end = isLastWindow ? buffer.limit() : lastLineEnd(buffer);
+            if (end == 0) {
+                return null; // a single record larger than the mapping window
+            }
+            int lineStart = 0;
+            for (int i = 0; i <= end; i++) {
+                if (i < end ? buffer.get(i) != '\n' : lineStart == end) {
+                    continue;
+                }
+                // The last line may be unterminated
+                long hash = hash(buffer, lineStart, i);
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = hash;
+                if (Arrays.binarySearch(known, hash) < 0) {
+                    changed.add(parseLine(buffer, lineStart, i));
+                }
+                lineStart = i + 1;
+            }
+            position += end;
+        }
+        return sorted(hashes, count);
+    }
+
+    // Binary counterpart of the line loop: hashes each record's bytes
+    private static long[] changedRecords(ByteBuffer buffer, long[] known, List<Task> changed) {
+        int count = BinaryTaskCodec.recordCount(buffer);
+        int offset = BinaryTaskCodec.HEADER_SIZE;
+        // Every record takes at least 7 bytes, which bounds a corrupt count
+        if (count < 0 || count > (buffer.limit() - offset) / 7) {
+            return null;
+        }
+        long[] hashes = new long[count];
+        for (int i = 0; i < count; i++) {
+            int length = BinaryTaskCodec.recordSize(buffer, offset);
+            if (length < 0) {
+                return null;
+            }
+            hashes[i] = hash(buffer, offset, offset + length);
+            if (Arrays.binarySearch(known, hashes[i]) < 0) {
+                changed.add(BinaryTaskCodec.getRecord(buffer, offset));
+            }
+            offset += length;
+        }
+        return sorted(hashes, count);
+    }
+
+    // 64-bit FNV-1a over [start, end); a collision would make a changed record
+    // look unchanged, which at 64 bits is negligible for any real file
+    private static long hash(ByteBuffer buffer, int start, int end) {
+        long hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long[] sorted(long[] hashes, int count) {
+        long[] result = Arrays.copyOf(hashes, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private boolean loadFrom(FileChannel channel, TaskList tasks) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        while (position < size) {
+            int length = (int) Math.min(size - position, MAX_WINDOW);
+            boolean isLastWindow = position + length == size;
+            ByteBuffer buffer = window(channel, position, length);
+            if (position == 0 && BinaryTaskCodec.isBinary(buffer)) {
+                // binary snapshots are read from a single window; some task
+                // stores take the records as they are
+                return isLastWindow
+                        && (tasks.loadBinary(buffer) || BinaryTaskCodec.read(buffer, tasks));
+            }
+            int consumed = scanLines(buffer, isLastWindow, tasks);
+            if (consumed == 0) {
+                return false; // a single record larger than the mapping window
+            }
+            position += consumed;
+        }
+        return true;
+    }
+
+    private static ByteBuffer window(FileChannel channel, long position, int length)
+            throws IOException {
+        if (length >= MAP_THRESHOLD) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // Parses every complete line in the buffer and returns the bytes consumed. An
+    // unterminated trailing line is only parsed when it ends the file.
+    private int scanLines(ByteBuffer buffer, boolean isLastWindow, TaskList tasks) {
+        int end = isLastWindow ? buffer.limit() : lastLineEnd(buffer);
+        if (end >= PARALLEL_THRESHOLD && PARALLELISM > 1) {
+            scanParallel(buffer, end, tasks);
+        } else {
+            Pair<List<Task>, RuntimeException> result = scanRange(buffer, 0, end);
+            appendResult(result, tasks);
+        }
+        return end;
+    }
+
+    // Splits [0, end) into newline-aligned ranges, parses them on the common
+    // fork-join pool and appends the results in file order. A bad record is
+    // rethrown only after every task before it has been added, exactly as the
+    // sequential scan would.
+    private static void scanParallel(ByteBuffer buffer, int end, TaskList tasks) {
+        int chunks = (int) Math.min(PARALLELISM * 4L, Math.max(1, end / MIN_CHUNK));
+        int[] bounds = new int[chunks + 1];
+        for (int k = 1; k < chunks; k++) {
+            int target = Math.max(bounds[k - 1], (int) ((long) end * k / chunks));
+            bounds[k] = nextLineStart(buffer, target, end);
+        }
+        bounds[chunks] = end;
+        List<Pair<List<Task>, RuntimeException>> results =
+                IntStream.range(0, chunks)
+                        .parallel()
+                        .mapToObj(k -> scanChunk(buffer, bounds[k], bounds[k + 1]))
+                        .toList();
+        results.forEach(result -> appendResult(result, tasks));
+    }
+
+    // Each chunk gets its own loader (scratch arrays) and buffer view
+    private static Pair<List<Task>, RuntimeException> scanChunk(
+            ByteBuffer buffer, int from, int to) {
+        return new MappedTaskLoader().scanRange(buffer.duplicate(), from, to);
+    }
+
+    private static void appendResult(Pair<List<Task>, RuntimeException> result, TaskList tasks) {
+        result.getFirst().forEach(tasks::addTask);
+        if (result.getSecond() != null) {
+            throw result.getSecond();
+        }
+    }
+
+    // Parses the lines in [from, to), stopping at the first bad record
+    private Pair<List<Task>, RuntimeException> scanRange(ByteBuffer buffer, int from, int to) {
+        List<Task> parsed = new ArrayList<>();
+        int lineStart = from;
+        try {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == '\n') {
+                    parsed.add(parseLine(buffer, lineStart, i));
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart < to) {
+                parsed.add(parseLine(buffer, lineStart, to));
+            }
+        } catch (RuntimeException e) {
+            return new Pair<>(parsed, e);
+        }
+        return new Pair<>(parsed, null);
+    }
+
+    // Returns the index just past the last newline, or 0 if there is none
+    private static int lastLineEnd(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    // Returns the index just past the first newline at or after from, capped at end
+    private static int nextLineStart(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    // Mirrors String.split("\\|") on [start, end): trailing empty fields do not
+    // count towards the number of parts.
+    private Task parseLine(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        int field = 0;
+        int parts = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && buffer.get(i) != '|') {
+                continue;
+            }
+            if (i > fieldBegin) {
+                parts = field + 1;
+            }
+            if (field < FIELDS) {
+                fieldStart[field] = fieldBegin;
+                fieldEnd[field] = i;
+            }
+            field++;
+            fieldBegin = i + 1;
+        }
+        if (parts < 3) {
+            throw new IllegalArgumentException(
+                    "Invalid task save string: " + decode(buffer, start, end));
+        }
+        return Task.fromFields(
+                typeOf(buffer),
+                fieldEnd[2] - fieldStart[2] == 1 && buffer.get(fieldStart[2]) == '1',
+                parts > 3 ? decode(buffer, fieldStart[3], fieldEnd[3]) : null,
+                parts > 4 ? decode(buffer, fieldStart[4], fieldEnd[4]) : null);
+    }
+
+    // Returns shared constants for the known tags so no String is built per record
+    private String typeOf(ByteBuffer buffer) {
+        int start = fieldStart[1];
+        if (fieldEnd[1] - start == 1) {
+            switch (buffer.get(start)) {
+                case 'T' :
+                    return "T";
+                case 'D' :
+                    return "D";
+                case 'E' :
+                    return "E";
+                default :
+                    break;
+            }
+        }
+        return decode(buffer, start, fieldEnd[1]);
+    }
+
+    private String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+}
@@ -1,17 +1,25 @@
 package meep.tool;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Immutable user message with a creation timestamp.
  *
  * <p>
- * Captures message text and time of creation. The text must be non-null.
+ * Captures message text and time of creation. The text must be non-null. The
+ * time is held as local epoch milliseconds: the wall-clock date-time counted
+ * from 1970-01-01T00:00 with no zone applied.
  */
 class Message {
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Length of the "[yyyy-MM-dd HH:mm:ss] " prefix in toString
+    static final int PREFIX_LENGTH = 22;
+
     private final String message;
-    private final LocalDateTime time;
+    private final long time;
 
     /**
      * Creates a message with the current timestamp.
@@ -20,9 +28,87 @@ class Message {
      *            content
      */
     Message(String message) {
+        this(message, LocalDateTime.now());
+    }
+
+    /**
+     * Creates a message with a given timestamp.
+     *
+     * @param message
+     *            content
+     * @param time
+     *            creation time
+     */
+    Message(String message, LocalDateTime time) {
+        this(message, toLocalMillis(time));
+    }
+
+    /**
+     * Creates a message with a timestamp in local epoch milliseconds.
+     *
+     * @param message
+     *            content
+     * @param time
+     *            creation time, see {@link #toLocalMillis(LocalDateTime)}
+     */
+    Message(String message, long time) {
         assert message != null : "Message content must not be null";
         this.message = message;
-        this.time = LocalDateTime.now();
+        this.time = time;
+    }
+
+    /**
+     * Rebuilds a message from its {@link #toString()} form.
+     *
+     * @param text
+     *            a "[yyyy-MM-dd HH:mm:ss] <text>" string
+     * @return the message, with the timestamp at second precision
+     * @throws java.time.format.DateTimeParseException
+     *             if the timestamp is malformed
+     */
+    static Message parse(String text) {
+        LocalDateTime time = LocalDateTime.parse(text.substring(1, PREFIX_LENGTH - 2), TIME_FORMAT);
+        return new Message(text.substring(PREFIX_LENGTH), time);
+    }
+
+    /**
+     * Converts a date-time to local epoch milliseconds.
+     *
+     * @param time
+     *            date-time to convert
+     * @return milliseconds from 1970-01-01T00:00 to the date-time, ignoring zones
+     */
+    static long toLocalMillis(LocalDateTime time) {
+        assert time != null : "Message time must not be null";
+        return time.toEpochSecond(ZoneOffset.UTC) * 1000 + time.getNano() / 1_000_000;
+    }
+
+    String getText() {
+        return message;
+    }
+
+    long getTime() {
+        return time;
+    }
+
+    /**
+     * Appends the {@link #toString()} form of a message to a buffer, formatting
+     * the timestamp straight into it with the shared formatter.
+     *
+     * @param sb
+     *            buffer to append to
+     * @param time
+     *            creation time in local epoch milliseconds
+     * @param text
+     *            message content
+     * @return the same buffer
+     */
+    static StringBuilder appendTo(StringBuilder sb, long time, String text) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(time, 1000), Math.floorMod(time, 1000) * 1_000_000, ZoneOffset.UTC);
+        sb.append('[');
+        TIME_FORMAT.formatTo(dateTime, sb);
+        return sb.append("] ").append(text);
     }
 
     /**
@@ -32,9 +118,7 @@ class Message {
      */
     @Override
     public String toString() {
-        return "["
-                + time.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-                + "] "
-                + message;
+        return appendTo(new StringBuilder(PREFIX_LENGTH + message.length()), time, message)
+                .toString();
     }
 }
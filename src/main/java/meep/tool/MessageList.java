@@ -1,15 +1,76 @@
 package meep.tool;
 
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
- * In-memory list of {@link Message} with add/remove/access operations and
- * iteration helpers.
+ * List of {@link Message} with add/remove/access operations and iteration
+ * helpers.
+ *
+ * <p>
+ * Recent messages are kept in an in-memory ring buffer. When a history file is
+ * given and the buffer is full, the oldest quarter is appended to that file
+ * and dropped from memory; indices still cover the whole session, and
+ * iteration reads spilled messages back from disk. Spilled messages are
+ * read-only, and the history file is never truncated.
+ *
+ * <p>
+ * The buffer is columnar: timestamps in a {@code long[]} and texts in a
+ * {@code String[]}. {@link Message} objects are only created when a caller
+ * asks for one; {@link #formatMessages} renders straight into a reused
+ * buffer.
+ *
+ * <p>
+ * All public methods are synchronized on the list; callbacks run while the
+ * lock is held.
  */
 class MessageList {
-    private final ArrayList<Message> messages = new ArrayList<>();
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final File historyFile;
+    private final int spillBatch;
+
+    private long[] times = new long[16];
+    private String[] texts = new String[16];
+    private int head = 0;
+    private int count = 0;
+    // Messages of this session that live only in the history file, and the file
+    // offset where each batch of spillBatch of them starts
+    private int spilled = 0;
+    private long[] batchOffsets = new long[4];
+
+    /** Creates an unbounded in-memory list. */
+    MessageList() {
+        this(Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates a list that keeps at most {@code capacity} messages in memory.
+     *
+     * @param capacity
+     *            in-memory message limit; at least 4
+     * @param historyFile
+     *            append-only file for older messages, or null to keep every
+     *            message in memory
+     */
+    MessageList(int capacity, File historyFile) {
+        assert capacity >= 4 : "capacity must be at least 4";
+        this.capacity = historyFile == null ? Integer.MAX_VALUE : capacity;
+        this.historyFile = historyFile;
+        this.spillBatch = capacity / 4;
+    }
 
     /**
      * Adds a message by content, creating a {@link Message} with current timestamp.
@@ -18,9 +79,11 @@ class MessageList {
      *            content
      * @return the string representation of the added message
      */
-    public String addMessage(String message) {
+    public synchronized String addMessage(String message) {
         assert message != null : "message must not be null";
-        return addMessage(new Message(message));
+        long time = Message.toLocalMillis(LocalDateTime.now());
+        append(time, message);
+        return Message.appendTo(new StringBuilder(), time, message).toString();
     }
 
     /**
@@ -30,40 +93,79 @@ class MessageList {
      *            message instance
      * @return the string representation of the added message
      */
-    public String addMessage(Message message) {
+    public synchronized String addMessage(Message message) {
         assert message != null : "message must not be null";
-        messages.add(message);
+        append(message.getTime(), message.getText());
         return message.toString();
     }
 
+    private void append(long time, String text) {
+        if (count == capacity) {
+            spillOldest();
+        }
+        if (count == texts.length) {
+            grow();
+        }
+        int slot = (head + count) % texts.length;
+        times[slot] = time;
+        texts[slot] = text;
+        count++;
+    }
+
     /**
-     * Removes and returns the message at an index.
+     * Removes and returns the message at an index. Only messages still held in
+     * memory can be removed.
      *
      * @param index
      *            0-based index
      * @return removed message
+     * @throws IndexOutOfBoundsException
+     *             if the index is outside the list
+     * @throws UnsupportedOperationException
+     *             if the message was already spilled to the history file
      */
-    public Message removeMessage(int index) {
-        return messages.remove(index);
+    public synchronized Message removeMessage(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " out of bounds for length " + size());
+        }
+        if (index < spilled) {
+            throw new UnsupportedOperationException("Message " + index + " is in the history file");
+        }
+        int offset = index - spilled;
+        Message removed = messageAt(offset);
+        for (int i = offset; i < count - 1; i++) {
+            int to = (head + i) % texts.length;
+            int from = (head + i + 1) % texts.length;
+            times[to] = times[from];
+            texts[to] = texts[from];
+        }
+        texts[(head + count - 1) % texts.length] = null;
+        count--;
+        return removed;
     }
 
     /**
-     * Clears all messages.
+     * Clears all messages. Spilled messages stay in the history file but are no
+     * longer part of the list.
      *
      * @return true after clearing
      */
-    public boolean clearMessages() {
-        messages.clear();
+    public synchronized boolean clearMessages() {
+        Arrays.fill(texts, null);
+        head = 0;
+        count = 0;
+        spilled = 0;
         return true;
     }
 
     /**
-     * Returns the number of messages.
+     * Returns the number of messages, including spilled ones.
      *
      * @return size of the list
      */
-    public int size() {
-        return messages.size();
+    public synchronized int size() {
+        return spilled + count;
     }
 
     /**
@@ -72,9 +174,9 @@ class MessageList {
      * @param action
      *            callback invoked for each message
      */
-    public void iterateMessages(MessageAction action) {
+    public synchronized void iterateMessages(MessageAction action) {
         assert action != null : "action must not be null";
-        messages.forEach(action::apply);
+        iterateMessages(0, size(), (message, index) -> action.apply(message));
     }
 
     /**
@@ -83,9 +185,66 @@ class MessageList {
      * @param action
      *            callback invoked for each (message, index)
      */
-    public void iterateMessages(IndexMessageAction action) {
+    public synchronized void iterateMessages(IndexMessageAction action) {
+        assert action != null : "action must not be null";
+        iterateMessages(0, size(), action);
+    }
+
+    /**
+     * Iterates over messages at indices [from, to) with index and message,
+     * clamped to the current size.
+     *
+     * @param from
+     *            first 0-based index, inclusive
+     * @param to
+     *            last 0-based index, exclusive
+     * @param action
+     *            callback invoked for each (message, index)
+     * @throws UncheckedIOException
+     *             if spilled messages cannot be read back
+     */
+    public synchronized void iterateMessages(int from, int to, IndexMessageAction action) {
         assert action != null : "action must not be null";
-        IntStream.range(0, messages.size()).forEach(i -> action.apply(messages.get(i), i));
+        assert from >= 0 && from <= to : "range must be non-negative and ordered";
+        int end = Math.min(to, size());
+        if (from < Math.min(end, spilled)) {
+            readSpilled(
+                    from,
+                    Math.min(end, spilled),
+                    (line, i) -> action.apply(Message.parse(line.toString()), i));
+        }
+        for (int i = Math.max(from, spilled); i < end; i++) {
+            action.apply(messageAt(i - spilled), i);
+        }
+    }
+
+    /**
+     * Renders messages at indices [from, to), clamped to the current size, in
+     * their {@link Message#toString()} form. The text passed to the action is
+     * only valid until it returns.
+     *
+     * @param from
+     *            first 0-based index, inclusive
+     * @param to
+     *            last 0-based index, exclusive
+     * @param action
+     *            callback invoked for each (formatted message, index)
+     * @throws UncheckedIOException
+     *             if spilled messages cannot be read back
+     */
+    public synchronized void formatMessages(int from, int to, FormattedMessageAction action) {
+        assert action != null : "action must not be null";
+        assert from >= 0 && from <= to : "range must be non-negative and ordered";
+        int end = Math.min(to, size());
+        if (from < Math.min(end, spilled)) {
+            readSpilled(from, Math.min(end, spilled), action);
+        }
+        StringBuilder buffer = new StringBuilder();
+        for (int i = Math.max(from, spilled); i < end; i++) {
+            int slot = (head + i - spilled) % texts.length;
+            buffer.setLength(0);
+            action.apply(Message.appendTo(buffer, times[slot], texts[slot]), i);
+        }
     }
 
     /**
@@ -93,8 +252,130 @@ class MessageList {
      *
      * @return stream of messages
      */
-    public Stream<Message> stream() {
-        return messages.stream();
+    public synchronized Stream<Message> stream() {
+        Stream.Builder<Message> spilledMessages = Stream.builder();
+        if (spilled > 0) {
+            readSpilled(
+                    0,
+                    spilled,
+                    (line, index) -> spilledMessages.add(Message.parse(line.toString())));
+        }
+        return Stream.concat(
+                spilledMessages.build(), IntStream.range(0, count).mapToObj(this::messageAt));
+    }
+
+    // Appends the oldest spillBatch messages to the history file in one write.
+    // If the file cannot be written they are dropped, so memory stays bounded.
+    private void spillOldest() {
+        StringBuilder lines = new StringBuilder();
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < spillBatch; i++) {
+            int slot = (head + i) % texts.length;
+            line.setLength(0);
+            appendEscaped(lines, Message.appendTo(line, times[slot], texts[slot])).append('\n');
+            texts[slot] = null;
+        }
+        head = (head + spillBatch) % texts.length;
+        count -= spillBatch;
+
+        File parent = historyFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel =
+                FileChannel.open(
+                        historyFile.toPath(),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND)) {
+            long offset = channel.size();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            int batch = spilled / spillBatch;
+            if (batch == batchOffsets.length) {
+                batchOffsets = Arrays.copyOf(batchOffsets, batch * 2);
+            }
+            batchOffsets[batch] = offset;
+            spilled += spillBatch;
+        } catch (IOException e) {
+            // history is best-effort; the dropped messages simply leave the list
+        }
+    }
+
+    // Reads spilled messages [from, to) back from the history file
+    private void readSpilled(int from, int to, FormattedMessageAction action) {
+        int batch = from / spillBatch;
+        try (FileChannel channel =
+                FileChannel.open(historyFile.toPath(), StandardOpenOption.READ)) {
+            channel.position(batchOffsets[batch]);
+            BufferedReader reader =
+                    new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            for (int i = batch * spillBatch; i < to; i++) {
+                String line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("History file is shorter than expected");
+                }
+                if (i >= from) {
+                    action.apply(unescape(line), i);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Builds a Message view of the in-memory entry at a ring offset
+    private Message messageAt(int offset) {
+        int slot = (head + offset) % texts.length;
+        return new Message(texts[slot], times[slot]);
+    }
+
+    private void grow() {
+        int length = (int) Math.min((long) texts.length * 2, capacity);
+        long[] grownTimes = new long[length];
+        String[] grownTexts = new String[length];
+        for (int i = 0; i < count; i++) {
+            grownTimes[i] = times[(head + i) % texts.length];
+            grownTexts[i] = texts[(head + i) % texts.length];
+        }
+        times = grownTimes;
+        texts = grownTexts;
+        head = 0;
+    }
+
+    // One history line per message: backslashes and line breaks are escaped
+    private static StringBuilder appendEscaped(StringBuilder sb, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                sb.append("\\\\");
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c == '\r') {
+                sb.append("\\r");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb;
+    }
+
+    private static String unescape(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
     }
 
     @FunctionalInterface
@@ -108,6 +389,19 @@ class MessageList {
         void apply(Message message);
     }
 
+    @FunctionalInterface
+    interface FormattedMessageAction {
+        /**
+         * Applies an action to a formatted message with its position.
+         *
+         * @param formatted
+         *            the message as "[yyyy-MM-dd HH:mm:ss] text"
+         * @param index
+         *            0-based index
+         */
+        void apply(CharSequence formatted, int index);
+    }
+
     @FunctionalInterface
     interface IndexMessageAction {
         /**
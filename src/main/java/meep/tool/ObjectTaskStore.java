@@ -0,0 +1,139 @@
+package meep.tool;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Default {@link TaskStore}: {@link Task} objects in an
+ * {@link OrderStatisticTree}, so positional inserts and deletes are
+ * logarithmic, with a {@link DueIndex} of not-done tasks and a
+ * {@link DescriptionIndex} for {@link #find(String)}.
+ */
+final class ObjectTaskStore implements TaskStore {
+    private final OrderStatisticTree<Task> tasks = new OrderStatisticTree<>();
+    private final DueIndex dueIndex = new DueIndex();
+    private final DescriptionIndex descriptionIndex = new DescriptionIndex();
+    // Index posting sets are in insertion order, which is list order until a
+    // task is inserted mid-list
+    private boolean isAppendOnly = true;
+
+    @Override
+    public void add(Task task) {
+        tasks.add(task);
+        dueIndex.add(task);
+        descriptionIndex.add(task);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        tasks.add(index, task);
+        dueIndex.add(task);
+        descriptionIndex.add(task);
+        isAppendOnly &= index == tasks.size() - 1;
+    }
+
+    @Override
+    public void remove(int index) {
+        Task removed = tasks.remove(index);
+        dueIndex.remove(removed);
+        descriptionIndex.remove(removed);
+    }
+
+    @Override
+    public void clear() {
+        tasks.clear();
+        dueIndex.clear();
+        descriptionIndex.clear();
+        isAppendOnly = true;
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        Task task = tasks.get(index);
+        setDone(task, isDone);
+        return task;
+    }
+
+    @Override
+    public boolean holdsTasks() {
+        return true;
+    }
+
+    @Override
+    public void setDone(Task task, boolean isDone) {
+        if (isDone) {
+            task.markDone();
+            dueIndex.remove(task);
+        } else {
+            task.markNotDone();
+            dueIndex.add(task);
+        }
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public List<Task> dueBefore(LocalDate date) {
+        List<Task> found = dueIndex.dueBefore(date);
+        if (found.size() < 2) {
+            return found;
+        }
+        // The index groups tasks by day; restore list order with one in-order
+        // pass, as find does
+        Set<Task> matched = new HashSet<>(found);
+        List<Task> due = new ArrayList<>(found.size());
+        tasks.forEach(task -> {
+            if (matched.contains(task)) {
+                due.add(task);
+            }
+        });
+        return due;
+    }
+
+    @Override
+    public List<Task> find(String needle) {
+        List<Task> matches = new ArrayList<>();
+        if (!DescriptionIndex.canSearch(needle)) {
+            // Too short for trigrams: plain scan
+            tasks.forEach(task -> {
+                if (task.checkDescriptionContains(needle)) {
+                    matches.add(task);
+                }
+            });
+            return matches;
+        }
+        List<Task> found = descriptionIndex.find(needle);
+        if (isAppendOnly || found.size() < 2) {
+            return found;
+        }
+        // Restore list order with one in-order pass
+        Set<Task> matched = new HashSet<>(found);
+        tasks.forEach(task -> {
+            if (matched.contains(task)) {
+                matches.add(task);
+            }
+        });
+        return matches;
+    }
+
+    @Override
+    public List<Task> snapshot() {
+        Task[] snapshot = new Task[tasks.size()];
+        int[] next = {0};
+        tasks.forEach(task -> snapshot[next[0]++] = task);
+        return Collections.unmodifiableList(Arrays.asList(snapshot));
+    }
+}
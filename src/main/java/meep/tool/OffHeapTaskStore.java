@@ -0,0 +1,357 @@
+package meep.tool;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * {@link TaskStore} that keeps every task outside the Java heap, so heap use
+ * and GC work do not grow with the list.
+ *
+ * <p>
+ * Task records live in a direct-buffer arena in the {@link BinaryTaskCodec}
+ * record layout; a second direct buffer holds one entry per task in list
+ * order, packing the record's size and arena offset into a long. Because
+ * records match the save format, a binary task file is loaded with one bulk
+ * copy into the arena (see {@link #loadBinary(ByteBuffer)}).
+ *
+ * <p>
+ * Records are never changed in place: the arena is append-only between
+ * compactions, and marking a task appends a changed copy of its record.
+ * Snapshots therefore share the arena instead of copying it. They also share
+ * the entry buffer, which the store copies on its first write after a
+ * snapshot. Removed and replaced records are reclaimed by compacting into a
+ * fresh arena once more than half of it is garbage.
+ *
+ * <p>
+ * As with {@link ColumnarTaskStore}, {@link Task} objects are only built on
+ * access and do not write through. Descriptions are encoded strictly, so every
+ * stored one reads back exactly; one that is not valid Unicode, such as text
+ * with an unpaired surrogate, is refused.
+ */
+final class OffHeapTaskStore implements TaskStore {
+    private static final int INITIAL_ARENA = 1 << 16;
+    private static final int INITIAL_ENTRIES = 1 << 10;
+    // Compact the arena once this many bytes are unreachable
+    private static final int MIN_GARBAGE = 1 << 16;
+
+    // Append-only between compactions, so snapshots can share it
+    private ByteBuffer arena = ByteBuffer.allocateDirect(INITIAL_ARENA);
+    private ByteBuffer entries = ByteBuffer.allocateDirect(INITIAL_ENTRIES * Long.BYTES);
+    // Whether a snapshot may read the entry buffer, which must then be copied
+    // before it is written
+    private boolean isEntriesShared = false;
+    private int size = 0;
+    // End of the used part of the arena
+    private int top = 0;
+    // Bytes below top that no entry refers to
+    private int garbage = 0;
+
+    @Override
+    public void add(Task task) {
+        insert(size, task);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        byte[] description;
+        try {
+            description = encode(task.getDescription());
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException(
+                    "Task description is not valid Unicode: " + task.getDescription());
+        }
+        long block = allocate(BinaryTaskCodec.recordSize(task, description));
+        BinaryTaskCodec.putRecord(arena, offsetOf(block), task, description);
+        ensureEntries(size + 1);
+        unshareEntries();
+        for (int i = size; i > index; i--) {
+            entries.putLong(i * Long.BYTES, entry(i - 1));
+        }
+        entries.putLong(index * Long.BYTES, block);
+        size++;
+    }
+
+    @Override
+    public void remove(int index) {
+        Objects.checkIndex(index, size);
+        long removed = entry(index);
+        unshareEntries();
+        for (int i = index; i < size - 1; i++) {
+            entries.putLong(i * Long.BYTES, entry(i + 1));
+        }
+        size--;
+        discard(removed);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        // Drop the arena rather than reuse it: snapshots may still share it
+        arena = ByteBuffer.allocateDirect(INITIAL_ARENA);
+        top = 0;
+        garbage = 0;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        return BinaryTaskCodec.getRecord(arena, offsetOf(entry(index)));
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        Objects.checkIndex(index, size);
+        long block = entry(index);
+        if ((arena.get(offsetOf(block) + 1) != 0) != isDone) {
+            // Append a changed copy; the old record may be in a snapshot
+            int length = lengthOf(block);
+            long changed = allocate(length);
+            arena.put(offsetOf(changed), arena, offsetOf(block), length);
+            arena.put(offsetOf(changed) + 1, (byte) (isDone ? 1 : 0));
+            unshareEntries();
+            entries.putLong(index * Long.BYTES, changed);
+            discard(block);
+        }
+        return get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Task> dueBefore(LocalDate date) {
+        long day = date.toEpochDay();
+        List<Task> due = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int offset = offsetOf(entry(i));
+            byte type = arena.get(offset);
+            if (type == 'T' || arena.get(offset + 1) != 0) {
+                continue;
+            }
+            // The due date is the deadline, or the event end
+            int dueDay = arena.getInt(offset + (type == 'D' ? 2 : 2 + Integer.BYTES));
+            if (dueDay < day) {
+                due.add(BinaryTaskCodec.getRecord(arena, offset));
+            }
+        }
+        return due;
+    }
+
+    @Override
+    public List<Task> find(String needle) {
+        List<Task> matches = new ArrayList<>();
+        byte[] target;
+        try {
+            target = encode(needle);
+        } catch (CharacterCodingException e) {
+            // Such a needle can still match half of a surrogate pair, which
+            // only the decoded text shows
+            for (int i = 0; i < size; i++) {
+                Task task = get(i);
+                if (task.checkDescriptionContains(needle)) {
+                    matches.add(task);
+                }
+            }
+            return matches;
+        }
+        for (int i = 0; i < size; i++) {
+            int offset = offsetOf(entry(i));
+            byte type = arena.get(offset);
+            int lengthAt = offset + 2 + (type == 'T' ? 0 : type == 'D' ? 1 : 2) * Integer.BYTES;
+            if (contains(lengthAt + Integer.BYTES, arena.getInt(lengthAt), target)) {
+                matches.add(BinaryTaskCodec.getRecord(arena, offset));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public List<Task> snapshot() {
+        isEntriesShared = true;
+        return new Snapshot(arena, entries, size);
+    }
+
+    /**
+     * Fills this empty store with the records of a binary task file, appending
+     * them to the arena in one go.
+     *
+     * @param file
+     *            complete file contents starting at index 0
+     * @return true if loaded; false, leaving the store empty, if the store is not
+     *         empty or the file is not a fully valid binary task file
+     */
+    @Override
+    public boolean loadBinary(ByteBuffer file) {
+        int count = BinaryTaskCodec.recordCount(file);
+        int start = BinaryTaskCodec.HEADER_SIZE;
+        // Every record takes at least 7 bytes, which bounds a corrupt count
+        if (size != 0 || count < 0 || count > (file.limit() - start) / 7) {
+            return false;
+        }
+        int offset = start;
+        ensureEntries(count);
+        unshareEntries();
+        for (int i = 0; i < count; i++) {
+            int length = BinaryTaskCodec.recordSize(file, offset);
+            if (length < 0) {
+                return false;
+            }
+            entries.putLong(i * Long.BYTES, block(top + offset - start, length));
+            offset += length;
+        }
+        // Records go after any garbage, which a snapshot may still read
+        ensureArena(top + offset - start);
+        arena.put(top, file, start, offset - start);
+        top += offset - start;
+        size = count;
+        return true;
+    }
+
+    // Unlike String.getBytes, reports unpaired surrogates instead of writing '?'
+    private static byte[] encode(String text) throws CharacterCodingException {
+        ByteBuffer encoded = StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(text));
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        return bytes;
+    }
+
+    private long entry(int index) {
+        return entries.getLong(index * Long.BYTES);
+    }
+
+    private static long block(int offset, int length) {
+        return (long) length << 32 | offset;
+    }
+
+    private static int offsetOf(long block) {
+        return (int) block;
+    }
+
+    private static int lengthOf(long block) {
+        return (int) (block >>> 32);
+    }
+
+    // Takes a block of the given length from the end of the arena
+    private long allocate(int length) {
+        ensureArena(top + length);
+        long block = block(top, length);
+        top += length;
+        return block;
+    }
+
+    // Counts a record no entry refers to any more; called after the entries
+    // are updated, since compaction moves every live record
+    private void discard(long block) {
+        garbage += lengthOf(block);
+        if (garbage >= MIN_GARBAGE && garbage > top / 2) {
+            compactArena();
+        }
+    }
+
+    // Copies the live records into a fresh arena; the old one stays intact for
+    // any snapshot still reading it
+    private void compactArena() {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(Math.max(INITIAL_ARENA, top - garbage));
+        unshareEntries();
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            long block = entry(i);
+            int length = lengthOf(block);
+            compacted.put(used, arena, offsetOf(block), length);
+            entries.putLong(i * Long.BYTES, block(used, length));
+            used += length;
+        }
+        arena = compacted;
+        top = used;
+        garbage = 0;
+    }
+
+    private void ensureArena(int capacity) {
+        if (capacity > arena.capacity()) {
+            arena = copyOf(arena, top, Math.max(capacity, arena.capacity() * 2));
+        }
+    }
+
+    private void ensureEntries(int count) {
+        if ((long) count * Long.BYTES > entries.capacity()) {
+            entries = copyOf(
+                    entries,
+                    size * Long.BYTES,
+                    Math.max(count * Long.BYTES, entries.capacity() * 2));
+            isEntriesShared = false;
+        }
+    }
+
+    // Called before writing to the entry buffer
+    private void unshareEntries() {
+        if (isEntriesShared) {
+            entries = copyOf(entries, size * Long.BYTES, entries.capacity());
+            isEntriesShared = false;
+        }
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer source, int used, int capacity) {
+        ByteBuffer copy = ByteBuffer.allocateDirect(capacity);
+        copy.put(0, source, 0, used);
+        return copy;
+    }
+
+    private boolean contains(int start, int length, byte[] target) {
+        if (target.length == 0) {
+            return true;
+        }
+        byte first = target[0];
+        int last = start + length - target.length;
+        for (int i = start; i <= last; i++) {
+            if (arena.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length && arena.get(i + j) == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The store at one point in time, sharing its buffers as they were then;
+     * tasks are built on access.
+     */
+    private static final class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final ByteBuffer arena;
+        private final ByteBuffer entries;
+        private final int size;
+
+        Snapshot(ByteBuffer arena, ByteBuffer entries, int size) {
+            this.arena = arena;
+            this.entries = entries;
+            this.size = size;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            return BinaryTaskCodec.getRecord(arena, offsetOf(entries.getLong(index * Long.BYTES)));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
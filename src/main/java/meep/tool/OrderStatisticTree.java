@@ -0,0 +1,230 @@
+package meep.tool;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Sequence addressed by position, stored as an implicit treap: a binary tree
+ * in list order whose nodes carry their subtree size, balanced by random heap
+ * priorities.
+ *
+ * <p>
+ * {@link #get(int)}, {@link #add(int, Object)} and {@link #remove(int)} take
+ * expected O(log n) time at any position, where an array list shifts every
+ * later element on a mid-list insert or delete. Not thread-safe.
+ *
+ * @param <E>
+ *            element type
+ */
+final class OrderStatisticTree<E> {
+    private Node<E> root;
+    // Right-hand result of the last split
+    private Node<E> rest;
+    private E removed;
+    // xorshift state for node priorities; fixed seed for reproducible shapes
+    private int seed = 0x2545F491;
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return size of the sequence
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the element at a zero-based position.
+     *
+     * @param index
+     *            position to fetch
+     * @return the element
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    E get(int index) {
+        Objects.checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param value
+     *            element to add
+     */
+    void add(E value) {
+        add(size(), value);
+    }
+
+    /**
+     * Inserts an element so that it ends up at the given position, shifting
+     * later elements up by one.
+     *
+     * @param index
+     *            position for the new element, from 0 to {@link #size()}
+     * @param value
+     *            element to insert
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    void add(int index, E value) {
+        Objects.checkIndex(index, size() + 1);
+        root = insert(root, index, new Node<>(value, nextPriority()));
+    }
+
+    /**
+     * Removes the element at a zero-based position, shifting later elements
+     * down by one.
+     *
+     * @param index
+     *            position of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    E remove(int index) {
+        Objects.checkIndex(index, size());
+        root = remove(root, index);
+        E value = removed;
+        removed = null;
+        return value;
+    }
+
+    /** Removes every element. */
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Visits every element in order.
+     *
+     * @param action
+     *            callback for each element
+     */
+    void forEach(Consumer<? super E> action) {
+        ArrayDeque<Node<E>> path = new ArrayDeque<>();
+        Node<E> node = root;
+        while (node != null || !path.isEmpty()) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            action.accept(node.value);
+            node = node.right;
+        }
+    }
+
+    private Node<E> insert(Node<E> tree, int index, Node<E> node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            node.left = split(tree, index);
+            node.right = rest;
+            rest = null;
+            node.update();
+            return node;
+        }
+        int leftSize = size(tree.left);
+        if (index <= leftSize) {
+            tree.left = insert(tree.left, index, node);
+        } else {
+            tree.right = insert(tree.right, index - leftSize - 1, node);
+        }
+        tree.size++;
+        return tree;
+    }
+
+    private Node<E> remove(Node<E> tree, int index) {
+        int leftSize = size(tree.left);
+        if (index < leftSize) {
+            tree.left = remove(tree.left, index);
+        } else if (index > leftSize) {
+            tree.right = remove(tree.right, index - leftSize - 1);
+        } else {
+            removed = tree.value;
+            return merge(tree.left, tree.right);
+        }
+        tree.size--;
+        return tree;
+    }
+
+    // Returns the first k elements of the tree as one tree and leaves the rest
+    // in the rest field
+    private Node<E> split(Node<E> tree, int k) {
+        if (tree == null) {
+            rest = null;
+            return null;
+        }
+        if (size(tree.left) >= k) {
+            Node<E> left = split(tree.left, k);
+            tree.left = rest;
+            tree.update();
+            rest = tree;
+            return left;
+        }
+        tree.right = split(tree.right, k - size(tree.left) - 1);
+        tree.update();
+        return tree;
+    }
+
+    // Joins two trees where every element of the first comes before the second
+    private Node<E> merge(Node<E> first, Node<E> second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.update();
+            return first;
+        }
+        second.left = merge(first, second.left);
+        second.update();
+        return second;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<E> {
+        private final E value;
+        private final int priority;
+        private int size = 1;
+        private Node<E> left;
+        private Node<E> right;
+
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package meep.tool;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
 import meep.ui.Ui;
 
 /**
@@ -9,11 +11,53 @@ import meep.ui.Ui;
  * <p>
  * Interactive mode prints responses and certain error messages; quiet mode only
  * builds commands without printing.
+ *
+ * <p>
+ * Input is normalized and split into a leading keyword and its argument in one
+ * pass; the keyword then selects a handler from a static table built once at
+ * class load.
  */
 public class Parser {
+    /**
+     * Builds a command from the normalized input and its text after the keyword
+     * (null if there is none). Returns null only when an invalid task number was
+     * already reported to the user.
+     */
+    @FunctionalInterface
+    private interface Handler {
+        Command build(String message, String argument, boolean interactive);
+    }
+
+    private static final Map<String, Handler> HANDLERS = new HashMap<>();
+
+    static {
+        HANDLERS.put("mark", (m, arg, i) -> taskNumberCommand(m, arg, i, Command.MarkCommand::new));
+        HANDLERS.put(
+                "unmark",
+                (m, arg, i) -> taskNumberCommand(m, arg, i, Command.UnmarkCommand::new));
+        HANDLERS.put(
+                "delete",
+                (m, arg, i) -> taskNumberCommand(m, arg, i, Command.DeleteCommand::new));
+        Handler addTask = (m, arg, i) -> new Command.AddTaskCommand(m);
+        HANDLERS.put("todo", addTask);
+        HANDLERS.put("deadline", addTask);
+        HANDLERS.put("event", addTask);
+        HANDLERS.put(
+                "check",
+                (m, arg, i) -> arg != null && arg.startsWith("due")
+                        ? new Command.CheckDueCommand(m)
+                        : new Command.UnknownCommand(m));
+        HANDLERS.put("list", (m, arg, i) -> listRangeCommand(m, arg));
+        HANDLERS.put(
+                "find",
+                (m, arg, i) -> arg == null
+                        ? new Command.UnknownCommand(m)
+                        : new Command.FindCommand(arg));
+    }
+
     /**
      * Parses and executes a command from a raw input string and prints any
-     * non-empty response via {@link Ui#printResponse(String)}. This method also
+     * non-empty response via {@link Ui#printResponse(Command)}. This method also
      * records the message.
      *
      * @param message
@@ -24,15 +68,12 @@ public class Parser {
     public static Command parse(String message) {
         assert message != null : "input message must not be null";
         // Normalize whitespace and trim to tolerate extra/multiple spaces
-        String normalized = message.strip().replaceAll("\\s+", " ");
+        String normalized = normalize(message);
         // record message silently (store as user typed)
         new Command.AddMessageCommand(message).execute();
         Command command = buildCommand(normalized, /* interactive */ true);
         if (command != null) {
-            String response = command.execute();
-            if (!response.isEmpty()) {
-                Ui.printResponse(response);
-            }
+            Ui.printResponse(command);
         }
         return command;
     }
@@ -48,74 +89,147 @@ public class Parser {
     public static Command parseQuiet(String message) {
         assert message != null : "input message must not be null";
         // Normalize whitespace
-        String normalized = message.strip().replaceAll("\\s+", " ");
+        String normalized = normalize(message);
         // record message silently (store as user typed)
         new Command.AddMessageCommand(message).execute();
         return buildCommand(normalized, /* interactive */ false);
     }
 
+    /**
+     * Strips the input and collapses each run of whitespace to a single space;
+     * equivalent to {@code input.strip().replaceAll("\\s+", " ")} without the
+     * regex.
+     *
+     * @param input
+     *            raw text
+     * @return normalized text; the input itself if it is already normalized
+     */
+    static String normalize(String input) {
+        int begin = 0;
+        int end = input.length();
+        while (begin < end && Character.isWhitespace(input.charAt(begin))) {
+            begin++;
+        }
+        while (end > begin && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        StringBuilder sb = null;
+        int copied = begin;
+        for (int i = begin; i < end; i++) {
+            if (!isRegexSpace(input.charAt(i))) {
+                continue;
+            }
+            int runEnd = i + 1;
+            while (runEnd < end && isRegexSpace(input.charAt(runEnd))) {
+                runEnd++;
+            }
+            if (input.charAt(i) != ' ' || runEnd > i + 1) {
+                if (sb == null) {
+                    sb = new StringBuilder(end - begin);
+                }
+                sb.append(input, copied, i).append(' ');
+                copied = runEnd;
+            }
+            i = runEnd - 1;
+        }
+        if (sb == null) {
+            return begin == 0 && end == input.length() ? input : input.substring(begin, end);
+        }
+        return sb.append(input, copied, end).toString();
+    }
+
+    // The characters matched by the regex class \s
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
     // Builds a Command for the given message. If interactive is true, user-facing
     // error messages are printed (e.g., invalid task number); otherwise, errors
     // are allowed to propagate for the caller to handle.
     private static Command buildCommand(String message, boolean interactive) {
-        Command command = null;
         switch (message) {
-            case "hello" -> command = new Command.HelloCommand();
-            case "how are you?" -> command = new Command.HowAreYouCommand();
-            case "list messages" -> command = new Command.ListMessagesCommand();
-            case "list" -> command = new Command.ListTasksCommand();
-            case "help" -> command = new Command.HelpCommand();
-            case "bye" -> command = new Command.ByeCommand();
-            default -> {
-                if (message.startsWith("mark ")) {
-                    try {
-                        int taskNumber = Integer.parseInt(message.split(" ")[1]);
-                        command = new Command.MarkCommand(taskNumber);
-                    } catch (NumberFormatException e) {
-                        if (interactive) {
-                            Ui.printResponse("Invalid task number.");
-                        } else {
-                            throw e;
-                        }
-                    }
-                } else if (message.startsWith("unmark ")) {
-                    try {
-                        int taskNumber = Integer.parseInt(message.split(" ")[1]);
-                        command = new Command.UnmarkCommand(taskNumber);
-                    } catch (NumberFormatException e) {
-                        if (interactive) {
-                            Ui.printResponse("Invalid task number.");
-                        } else {
-                            throw e;
-                        }
-                    }
-                } else if (message.startsWith("delete ")) {
-                    try {
-                        int taskNumber = Integer.parseInt(message.split(" ")[1]);
-                        command = new Command.DeleteCommand(taskNumber);
-                    } catch (NumberFormatException e) {
-                        if (interactive) {
-                            Ui.printResponse("Invalid task number.");
-                        } else {
-                            throw e;
-                        }
-                    }
-                } else if (Arrays.asList("todo", "deadline", "event")
-                        .contains(message.split(" ", 2)[0])) {
-                    command = new Command.AddTaskCommand(message);
-                } else if (message.startsWith("save")) {
-                    command = new Command.SaveCommand();
-                } else if (message.startsWith("load")) {
-                    command = new Command.LoadCommand();
-                } else if (message.startsWith("check due")) {
-                    command = new Command.CheckDueCommand(message);
-                } else if (message.startsWith("find ")) {
-                    command = new Command.FindCommand(message.split(" ", 2)[1]);
-                } else {
-                    command = new Command.UnknownCommand(message);
-                }
+            case "hello" :
+                return new Command.HelloCommand();
+            case "how are you?" :
+                return new Command.HowAreYouCommand();
+            case "list messages" :
+                return new Command.ListMessagesCommand();
+            case "list" :
+                return new Command.ListTasksCommand();
+            case "help" :
+                return new Command.HelpCommand();
+            case "bye" :
+                return new Command.ByeCommand();
+            default :
+                break;
+        }
+        int space = message.indexOf(' ');
+        String keyword = space < 0 ? message : message.substring(0, space);
+        String argument = space < 0 ? null : message.substring(space + 1);
+        Handler handler = HANDLERS.get(keyword);
+        if (handler != null) {
+            return handler.build(message, argument, interactive);
+        }
+        // "save" and "load" also accept trailing text, e.g. "saved"
+        if (keyword.startsWith("save")) {
+            return new Command.SaveCommand();
+        } else if (keyword.startsWith("load")) {
+            return new Command.LoadCommand("merge".equals(argument));
+        }
+        return new Command.UnknownCommand(message);
+    }
+
+    // Handles "list a-b" and "list messages a-b" (1-based, inclusive); anything
+    // else after "list" is not a list command
+    private static Command listRangeCommand(String message, String argument) {
+        boolean isMessages = argument.startsWith("messages ");
+        String range = isMessages ? argument.substring("messages ".length()) : argument;
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            return new Command.UnknownCommand(message);
+        }
+        int first = parsePositive(range.substring(0, dash));
+        int last = parsePositive(range.substring(dash + 1));
+        if (first < 1 || last < first) {
+            return new Command.UnknownCommand(message);
+        }
+        return isMessages
+                ? new Command.ListMessagesCommand(first, last)
+                : new Command.ListTasksCommand(first, last);
+    }
+
+    // Returns the value of a plain run of digits, or -1 if the text is not one
+    private static int parsePositive(String text) {
+        if (text.isEmpty() || text.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return -1;
             }
         }
-        return command;
+        return Integer.parseInt(text);
+    }
+
+    // Parses the first word of the argument as a task number
+    private static Command taskNumberCommand(
+            String message,
+            String argument,
+            boolean interactive,
+            IntFunction<Command> factory) {
+        if (argument == null) {
+            return new Command.UnknownCommand(message);
+        }
+        int space = argument.indexOf(' ');
+        try {
+            return factory.apply(
+                    Integer.parseInt(space < 0 ? argument : argument.substring(0, space)));
+        } catch (NumberFormatException e) {
+            if (interactive) {
+                Ui.printResponse("Invalid task number.");
+                return null;
+            }
+            throw e;
+        }
     }
 }
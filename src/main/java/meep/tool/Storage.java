@@ -1,20 +1,76 @@
 package meep.tool;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Persistence layer for saving and loading {@link Task} lists from a text file.
+ *
+ * <p>
+ * Snapshots are written as pipe-delimited text by default, or in the compact
+ * {@link BinaryTaskCodec} format when selected; loading detects either.
+ *
+ * <p>
+ * In journaling mode, task mutations are appended as small delta records to a
+ * journal next to the snapshot file and replayed on load; the snapshot is only
+ * rewritten when the journal is compacted.
+ *
+ * <p>
+ * Merge loads remember a hash of every record they read. The next merge load
+ * of the same file into the same list only parses records whose hash is new,
+ * as long as no task has been removed from the list in between.
+ *
+ * <p>
+ * Operations that touch the configured file or journal state are synchronized
+ * on the class, so a background save cannot interleave with journal appends.
+ * Commands change the list through {@link #addTask}, {@link #markDone},
+ * {@link #markNotDone} and {@link #removeTask}, which apply the change and
+ * append its journal record under that one lock: a snapshot taken between the
+ * two would already hold the change that the record then replays again.
+ * Snapshots are written from {@link TaskList}'s consistent view of the list.
  */
 class Storage {
+    /** On-disk snapshot encodings. */
+    enum Format {
+        TEXT, BINARY
+    }
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int COMPACTION_THRESHOLD = 1000;
+
     private static String FILE_PATH = "data/meep.txt";
+    private static Format format =
+            "binary".equals(System.getProperty("meep.format")) ? Format.BINARY : Format.TEXT;
+    private static boolean isJournaling = Boolean.getBoolean("meep.journal");
+    // True once the in-memory list is known to equal snapshot + journal
+    private static boolean isJournalSynced = false;
+    private static int journalRecords = 0;
+    // List last loaded from or saved to the file, so it holds everything the
+    // file held and saving it cannot drop tasks
+    private static TaskList coveringList;
+    // State of the last complete merge load; the hashes are sorted
+    private static TaskList mergedList;
+    private static String mergedPath;
+    private static long mergedRemovals;
+    private static long[] mergedHashes;
 
     /**
-     * Saves tasks to the current file path.
+     * Saves tasks to the current file path. In journaling mode, this is a no-op
+     * when every change since the last snapshot is already in the journal.
      *
      * @param tasks
      *            in-memory tasks
@@ -22,27 +78,17 @@ class Storage {
      *            buffer to append error messages
      * @return true if write succeeded
      */
-    public static boolean saveTasks(TaskList tasks, StringBuilder response) {
+    public static synchronized boolean saveTasks(TaskList tasks, StringBuilder response) {
         assert tasks != null : "tasks must not be null";
         assert response != null : "response buffer must not be null";
         assert FILE_PATH != null && !FILE_PATH.isEmpty() : "FILE_PATH must be configured";
-        try {
-            File file = new File(FILE_PATH);
-            File parent = file.getParentFile();
-            if (parent != null && !parent.exists()) {
-                if (!parent.mkdirs()) {
-                    response.append("Error saving tasks.");
-                    return false;
-                }
-            }
-            try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-                tasks.iterateTasks(task -> writer.println(Task.saveString(task)));
-                return true;
-            }
-        } catch (IOException e) {
-            response.append("Error saving tasks.");
-            return false;
+        boolean flag = isJournaling
+                ? isJournalSynced || compactJournal(tasks, response)
+                : writeSnapshot(new File(FILE_PATH), tasks, format, response);
+        if (flag) {
+            coveringList = tasks;
         }
+        return flag;
     }
 
     /**
@@ -54,35 +100,412 @@ class Storage {
      *            buffer to append error diagnostics
      * @return true if entire load succeeded; false if file missing or read error
      */
-    public static boolean loadTasks(TaskList tasks, StringBuilder response) {
+    public static synchronized boolean loadTasks(TaskList tasks, StringBuilder response) {
         assert tasks != null : "tasks must not be null";
         assert response != null : "response buffer must not be null";
         assert FILE_PATH != null && !FILE_PATH.isEmpty() : "FILE_PATH must be configured";
+        File file = new File(FILE_PATH);
+        boolean flag = isJournaling
+                ? loadJournaled(tasks)
+                : file.exists() && MappedTaskLoader.load(file, tasks);
+        if (flag) {
+            coveringList = tasks;
+        }
+        return flag;
+    }
+
+    /**
+     * Returns whether the list was last loaded from or saved to the current
+     * file, completely and without error, so saving it cannot lose tasks that
+     * only the file holds.
+     *
+     * @param tasks
+     *            list to check
+     * @return true if the list covers the file
+     */
+    static synchronized boolean coversFile(TaskList tasks) {
+        return tasks == coveringList;
+    }
+
+    /**
+     * Loads tasks from the current file path into the provided list, treating
+     * tasks already in the list as the policy says. Under
+     * {@link DuplicatePolicy#ALLOW} this is {@link #loadTasks(TaskList, StringBuilder)}.
+     * Outside journaling mode, a {@link DuplicatePolicy#MERGE} load skips the
+     * records it read unchanged at the last merge load into the list; they
+     * count as skipped.
+     *
+     * @param tasks
+     *            list to populate
+     * @param policy
+     *            how to treat loaded tasks that duplicate listed ones
+     * @param response
+     *            buffer to append error diagnostics
+     * @return whether the entire load succeeded, and what it did to the list
+     */
+    static synchronized Pair<Boolean, TaskList.MergeResult> loadTasks(
+            TaskList tasks, DuplicatePolicy policy, StringBuilder response) {
+        assert policy != null : "policy must not be null";
+        if (policy == DuplicatePolicy.ALLOW) {
+            int before = tasks.size();
+            boolean flag = loadTasks(tasks, response);
+            return new Pair<>(flag, new TaskList.MergeResult(tasks.size() - before, 0, 0));
+        }
+        if (policy == DuplicatePolicy.MERGE && !isJournaling) {
+            return mergeChanged(tasks);
+        }
+        boolean isEmptyTarget = tasks.size() == 0;
+        TaskList loaded = new TaskList();
+        boolean flag = loadTasks(loaded, response);
+        TaskList.MergeResult result = tasks.merge(loaded.snapshot(), policy);
+        // The journal only describes the list if the list took the file as is
+        isJournalSynced = isJournalSynced && isEmptyTarget && result.skipped == 0;
+        if (flag) {
+            coveringList = tasks;
+        }
+        return new Pair<>(flag, result);
+    }
+
+    // Journal replay needs every record, so only plain files are read this way
+    private static Pair<Boolean, TaskList.MergeResult> mergeChanged(TaskList tasks) {
         File file = new File(FILE_PATH);
         if (!file.exists()) {
+            return new Pair<>(false, new TaskList.MergeResult(0, 0, 0));
+        }
+        boolean isSameList = tasks == mergedList
+                && FILE_PATH.equals(mergedPath)
+                && tasks.removals() == mergedRemovals;
+        long[] known = isSameList ? mergedHashes : new long[0];
+        mergedList = null;
+        List<Task> changed = new ArrayList<>();
+        long[] hashes;
+        try {
+            hashes = MappedTaskLoader.loadChanged(file, known, changed);
+        } catch (RuntimeException e) {
+            // As with a plain load, the records before the bad one are kept
+            tasks.merge(changed, DuplicatePolicy.MERGE);
+            throw e;
+        }
+        TaskList.MergeResult result = tasks.merge(changed, DuplicatePolicy.MERGE);
+        if (hashes == null) {
+            return new Pair<>(false, result);
+        }
+        coveringList = tasks;
+        mergedList = tasks;
+        mergedPath = FILE_PATH;
+        mergedRemovals = tasks.removals();
+        mergedHashes = hashes;
+        int unchanged = hashes.length - changed.size();
+        return new Pair<>(true, new TaskList.MergeResult(
+                result.added, result.skipped + unchanged, result.updated));
+    }
+
+    public static synchronized void setSaveFile(String path) {
+        assert path != null && !path.trim().isEmpty() : "save file path must not be null or empty";
+        FILE_PATH = path;
+        isJournalSynced = false;
+        coveringList = null;
+        journalRecords = 0;
+    }
+
+    /**
+     * Selects the encoding used for subsequent snapshot writes.
+     *
+     * @param newFormat
+     *            text or binary
+     */
+    static synchronized void setFormat(Format newFormat) {
+        assert newFormat != null : "format must not be null";
+        format = newFormat;
+    }
+
+    /**
+     * Rewrites a task file in the given format, e.g. to turn an existing
+     * {@code data/meep.txt} into a binary snapshot.
+     *
+     * @param source
+     *            existing task file, in either format
+     * @param target
+     *            file to write; may be the same as the source
+     * @param targetFormat
+     *            encoding for the target
+     * @param response
+     *            buffer to append error messages
+     * @return true if the source was fully read and the target written
+     */
+    static boolean convert(File source, File target, Format targetFormat, StringBuilder response) {
+        assert source != null && target != null : "files must not be null";
+        TaskList tasks = new TaskList();
+        if (!source.exists() || !MappedTaskLoader.load(source, tasks)) {
+            response.append("Error loading tasks.");
             return false;
         }
+        return writeSnapshot(target, tasks, targetFormat, response);
+    }
 
-        boolean flag = true;
-        try (Scanner fileScanner = new Scanner(file)) {
+    /**
+     * Enables or disables journaling mode. The journal only starts recording
+     * once the in-memory list has been saved or loaded in this mode.
+     *
+     * @param enabled
+     *            true to append mutations to the journal
+     */
+    static synchronized void setJournaling(boolean enabled) {
+        isJournaling = enabled;
+        isJournalSynced = false;
+        journalRecords = 0;
+    }
 
-            while (fileScanner.hasNextLine()) {
-                try {
-                    String line = fileScanner.nextLine();
-                    Task task = Task.load(line);
-                    tasks.addTask(task);
-                } catch (NoSuchElementException | IllegalStateException e) {
-                    flag = false;
+    /**
+     * Adds a task to the list and records it in the journal, as one step that
+     * no save or compaction can come between.
+     *
+     * @param tasks
+     *            list to add to
+     * @param task
+     *            task to add
+     * @param policy
+     *            how to treat a duplicate (see {@link TaskList#offerTask})
+     * @return true if the task was added
+     */
+    static synchronized boolean addTask(TaskList tasks, Task task, DuplicatePolicy policy) {
+        if (!tasks.offerTask(task, policy)) {
+            return false;
+        }
+        appendJournal(tasks, "A" + Task.saveString(task));
+        return true;
+    }
+
+    /**
+     * Marks the task at a zero-based index as done and records it in the
+     * journal, as one step.
+     *
+     * @param tasks
+     *            list containing the task
+     * @param index
+     *            0-based index of the task
+     * @return the marked task
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    static synchronized Task markDone(TaskList tasks, int index) {
+        Task task = tasks.markDone(index);
+        appendJournal(tasks, "M|" + index);
+        return task;
+    }
+
+    /**
+     * Marks the task at a zero-based index as not done and records it in the
+     * journal, as one step.
+     *
+     * @param tasks
+     *            list containing the task
+     * @param index
+     *            0-based index of the task
+     * @return the unmarked task
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    static synchronized Task markNotDone(TaskList tasks, int index) {
+        Task task = tasks.markNotDone(index);
+        appendJournal(tasks, "U|" + index);
+        return task;
+    }
+
+    /**
+     * Removes the task at a zero-based index and records it in the journal, as
+     * one step.
+     *
+     * @param tasks
+     *            list to remove from
+     * @param index
+     *            0-based index of the task
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    static synchronized void removeTask(TaskList tasks, int index) {
+        tasks.removeTask(index);
+        appendJournal(tasks, "D|" + index);
+    }
+
+    // Appends one delta record; on failure, falls back to a full snapshot at the
+    // next save. Compacts once the journal grows past the threshold.
+    private static void appendJournal(TaskList tasks, String record) {
+        if (!isJournaling || !isJournalSynced) {
+            return;
+        }
+        try {
+            Files.writeString(
+                    journalFile().toPath(),
+                    record + System.lineSeparator(),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            journalRecords++;
+        } catch (IOException e) {
+            isJournalSynced = false;
+            return;
+        }
+        if (journalRecords >= COMPACTION_THRESHOLD) {
+            compactJournal(tasks, new StringBuilder());
+        }
+    }
+
+    // Folds the journal into a fresh snapshot. The new snapshot is fully written
+    // before the journal is dropped, so a crash at any point leaves either
+    // (old snapshot + journal) or a complete compacted file for recovery.
+    private static boolean compactJournal(TaskList tasks, StringBuilder response) {
+        File file = new File(FILE_PATH);
+        File compacted = new File(FILE_PATH + COMPACT_SUFFIX);
+        if (!writeSnapshot(compacted, tasks, format, response)) {
+            compacted.delete();
+            isJournalSynced = false;
+            return false;
+        }
+        try {
+            Files.deleteIfExists(journalFile().toPath());
+            Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            response.append("Error saving tasks.");
+            isJournalSynced = false;
+            return false;
+        }
+        journalRecords = 0;
+        isJournalSynced = true;
+        return true;
+    }
+
+    // Loads snapshot then replays the journal. Replay indices are relative to the
+    // snapshot, so tasks are rebuilt in a scratch list when the target is not
+    // empty; the journal then stays detached until the next full save.
+    private static boolean loadJournaled(TaskList tasks) {
+        File file = new File(FILE_PATH);
+        File journal = journalFile();
+        recoverCompaction(file, journal);
+        if (!file.exists() && !journal.exists()) {
+            return false;
+        }
+
+        boolean isEmptyTarget = tasks.size() == 0;
+        TaskList target = isEmptyTarget ? tasks : new TaskList();
+        boolean flag = !file.exists() || MappedTaskLoader.load(file, target);
+        int replayed = 0;
+        if (journal.exists()) {
+            try {
+                List<String> records = Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8);
+                for (String record : records) {
+                    if (!replayRecord(target, record)) {
+                        flag = false;
+                        break;
+                    }
+                    replayed++;
                 }
+            } catch (IOException e) {
+                flag = false;
             }
-        } catch (IOException e) {
-            flag = false;
         }
+        if (!isEmptyTarget) {
+            target.iterateTasks(tasks::addTask);
+        }
+        isJournalSynced = isEmptyTarget && flag;
+        journalRecords = replayed;
         return flag;
     }
 
-    public static void setSaveFile(String path) {
-        assert path != null && !path.trim().isEmpty() : "save file path must not be null or empty";
-        FILE_PATH = path;
+    // Applies one journal record; returns false for a torn or malformed record
+    private static boolean replayRecord(TaskList tasks, String record) {
+        try {
+            switch (record.charAt(0)) {
+                case 'A' :
+                    tasks.addTask(Task.load(record.substring(1)));
+                    return true;
+                case 'M' :
+                    tasks.markDone(Integer.parseInt(record.substring(2)));
+                    return true;
+                case 'U' :
+                    tasks.markNotDone(Integer.parseInt(record.substring(2)));
+                    return true;
+                case 'D' :
+                    tasks.removeTask(Integer.parseInt(record.substring(2)));
+                    return true;
+                default :
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // A leftover compacted file is complete only if the journal was already
+    // dropped; otherwise the compaction was interrupted and is discarded.
+    private static void recoverCompaction(File file, File journal) {
+        File compacted = new File(FILE_PATH + COMPACT_SUFFIX);
+        if (!compacted.exists()) {
+            return;
+        }
+        try {
+            if (journal.exists()) {
+                Files.delete(compacted.toPath());
+            } else {
+                Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // leave files untouched; load proceeds from snapshot + journal
+        }
+    }
+
+    // Writes the whole list to a temporary file next to the target and renames
+    // it over the target, so readers and crashes only ever see a complete file
+    private static boolean writeSnapshot(
+            File file, TaskList tasks, Format snapshotFormat, StringBuilder response) {
+        File temp = new File(file.getPath() + TEMP_SUFFIX);
+        try {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                if (!parent.mkdirs()) {
+                    response.append("Error saving tasks.");
+                    return false;
+                }
+            }
+            if (file.isDirectory()) {
+                throw new IOException(file + " is a directory");
+            }
+            if (snapshotFormat == Format.BINARY) {
+                try (DataOutputStream out =
+                        new DataOutputStream(
+                                new BufferedOutputStream(new FileOutputStream(temp)))) {
+                    BinaryTaskCodec.write(tasks, out);
+                }
+            } else {
+                try (PrintWriter writer = new PrintWriter(new FileWriter(temp))) {
+                    tasks.iterateTasks(task -> writer.println(Task.saveString(task)));
+                    if (writer.checkError()) {
+                        throw new IOException("Error writing " + temp);
+                    }
+                }
+            }
+            replace(temp, file);
+            return true;
+        } catch (IOException e) {
+            temp.delete();
+            response.append("Error saving tasks.");
+            return false;
+        }
+    }
+
+    private static void replace(File source, File target) throws IOException {
+        try {
+            Files.move(
+                    source.toPath(),
+                    target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static File journalFile() {
+        return new File(FILE_PATH + JOURNAL_SUFFIX);
     }
 }
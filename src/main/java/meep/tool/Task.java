@@ -18,7 +18,7 @@ public abstract class Task {
     private static DateTimeFormatter outputDtf = DateTimeFormatter.ofPattern(outputDtfPattern);
 
     private String description;
-    private boolean isDone;
+    private volatile boolean isDone;
 
     /**
      * Serializes a task to a pipe-delimited save string. Example: |T|0|desc|,
@@ -61,24 +61,57 @@ public abstract class Task {
         String[] parts = saveString.split("\\|");
         if (parts.length < 3) {
             throw new IllegalArgumentException("Invalid task save string: " + saveString);
-        } else {
-            switch (parts[1]) {
-                case "T" :
-                    return new ToDoTask(parts[3], parts[2].equals("1"));
-                case "D" :
-                    return new DeadlineTask(parts[3], parts[4], parts[2].equals("1"));
-                case "E" :
-                    String range = parts[4];
-                    if (range.length() < 21) {
-                        throw new ArrayIndexOutOfBoundsException("Invalid event time range");
-                    }
-                    String start = range.substring(0, 10);
-                    String end = range.substring(range.length() - 10);
-                    return new EventTask(parts[3], start, end, parts[2].equals("1"));
-                default :
-                    throw new IllegalArgumentException("Unknown task type: " + parts[1]);
-            }
         }
+        return fromFields(
+                parts[1],
+                parts[2].equals("1"),
+                parts.length > 3 ? parts[3] : null,
+                parts.length > 4 ? parts[4] : null);
+    }
+
+    /**
+     * Builds a task from already-separated save string fields. Missing fields are
+     * passed as null and reported the same way {@link #load(String)} does.
+     *
+     * @param type
+     *            type tag (T, D or E)
+     * @param isDone
+     *            completion flag
+     * @param description
+     *            description field, or null if absent
+     * @param when
+     *            date field (deadline or "start-end" range), or null if absent
+     * @return reconstructed Task
+     * @throws IllegalArgumentException
+     *             if the type is unknown
+     * @throws ArrayIndexOutOfBoundsException
+     *             if a required field is missing or the event range is too short
+     */
+    static Task fromFields(String type, boolean isDone, String description, String when) {
+        switch (type) {
+            case "T" :
+                return new ToDoTask(require(description), isDone);
+            case "D" :
+                return new DeadlineTask(require(description), require(when), isDone);
+            case "E" :
+                String desc = require(description);
+                String range = require(when);
+                if (range.length() < 21) {
+                    throw new ArrayIndexOutOfBoundsException("Invalid event time range");
+                }
+                String start = range.substring(0, 10);
+                String end = range.substring(range.length() - 10);
+                return new EventTask(desc, start, end, isDone);
+            default :
+                throw new IllegalArgumentException("Unknown task type: " + type);
+        }
+    }
+
+    private static String require(String field) {
+        if (field == null) {
+            throw new ArrayIndexOutOfBoundsException("Missing task field");
+        }
+        return field;
     }
 
     /**
@@ -92,7 +125,7 @@ public abstract class Task {
      */
     public static Pair<Task, Exception> buildTask(String task) {
         try {
-            String normalized = task.strip().replaceAll("\\s+", " ");
+            String normalized = Parser.normalize(task);
             if (normalized.startsWith("todo ")) {
                 String desc = normalized.substring(5).trim();
                 if (desc.isEmpty()) {
@@ -201,9 +234,59 @@ public abstract class Task {
      *
      * @param time
      *            date string in input format
+     * @return true if due; false if the date cannot be parsed
+     */
+    public boolean isDue(String time) {
+        assert time != null : "time must not be null";
+        try {
+            return isDue(parseDate(time));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Determines if the task is due strictly before the given date (and not already
+     * done). Callers checking many tasks should parse the date once and use this.
+     *
+     * @param date
+     *            the reference date
      * @return true if due
      */
-    public abstract boolean isDue(String time);
+    public abstract boolean isDue(LocalDate date);
+
+    /**
+     * Returns the date this task is due by, used to index tasks for due checks.
+     *
+     * @return the due date, or null if the task has none
+     */
+    LocalDate getDueDate() {
+        return null;
+    }
+
+    /**
+     * Parses a date string in the input format.
+     *
+     * @param time
+     *            date string
+     * @return the parsed date
+     * @throws DateTimeParseException
+     *             if the string does not match the input pattern
+     */
+    static LocalDate parseDate(String time) {
+        return LocalDate.parse(time, inputDtf);
+    }
+
+    /**
+     * Formats a date for display using the output format.
+     *
+     * @param date
+     *            the date to format
+     * @return formatted date
+     */
+    static String formatDate(LocalDate date) {
+        return date.format(outputDtf);
+    }
 
     /**
      * Formats a date string for display using the output format, returning the
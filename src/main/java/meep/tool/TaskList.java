@@ -1,19 +1,62 @@
 package meep.tool;
 
-import java.util.ArrayList;
-import java.util.stream.IntStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 
 /**
  * Mutable collection of {@link Task} items with add/remove/access operations
- * and iteration helpers.
+ * and iteration helpers. Safe for use from several threads.
+ *
+ * <p>
+ * Tasks are held by a {@link TaskStore} backend. Mark and unmark tasks through
+ * {@link #markDone(int)} and {@link #markNotDone(int)}: the default backend
+ * keeps its due index current that way, and the columnar backend hands out
+ * task views that do not write through.
+ *
+ * <p>
+ * Writers take an exclusive lock. Iteration, {@link #stream()} and
+ * {@link #size()} are lock-free: they work on an immutable snapshot of the
+ * list order that is rebuilt on the first read after a write, so a save or
+ * listing never sees a half-applied change. Index queries and
+ * {@link #get(int)} share a read lock, so they never wait for each other,
+ * only for a write in progress.
+ *
+ * <p>
+ * Duplicate checks ({@link #contains(Task)} and the {@link DuplicatePolicy}
+ * aware add and merge) use a {@link DuplicateIndex} built on the first check
+ * and kept current by every write after that.
  */
 class TaskList {
-    private final ArrayList<Task> tasks;
+    private final TaskStore tasks;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Tasks in list order; null after a write until the next read rebuilds it
+    private volatile List<Task> snapshot = List.of();
+    private volatile int size = 0;
+    // Tasks ever removed, counting each clear as one
+    private volatile long removals = 0;
+    private volatile Runnable changeListener = () -> {};
+    // Null until the first duplicate check; guarded by the lock
+    private DuplicateIndex duplicates;
 
-    /** Creates an empty task list. */
+    /** Creates an empty task list on the backend chosen by {@code meep.tasks}. */
     TaskList() {
-        this.tasks = new ArrayList<>();
+        this(TaskStore.create());
+    }
+
+    /**
+     * Creates an empty task list on the given backend.
+     *
+     * @param store
+     *            empty backend to hold the tasks
+     */
+    TaskList(TaskStore store) {
+        assert store != null && store.size() == 0 : "store must be empty";
+        this.tasks = store;
     }
 
     /**
@@ -24,7 +67,65 @@ class TaskList {
      */
     public void addTask(Task task) {
         assert task != null : "task must not be null";
-        tasks.add(task);
+        lock.writeLock().lock();
+        try {
+            append(task);
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a task to the end of the list unless the policy turns away
+     * duplicates and a task with the same content is already present.
+     *
+     * @param task
+     *            task to add
+     * @param policy
+     *            how to treat a duplicate; {@link DuplicatePolicy#MERGE} leaves
+     *            the existing task as is
+     * @return true if the task was added
+     */
+    public boolean offerTask(Task task, DuplicatePolicy policy) {
+        assert task != null : "task must not be null";
+        assert policy != null : "policy must not be null";
+        lock.writeLock().lock();
+        try {
+            if (policy != DuplicatePolicy.ALLOW && duplicates().containsContent(task)) {
+                return false;
+            }
+            append(task);
+            changed();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts a task at the given zero-based index, shifting later tasks up by
+     * one.
+     *
+     * @param index
+     *            position for the task (0-based), from 0 to {@link #size()}
+     * @param task
+     *            task to insert
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    public void insertTask(int index, Task task) {
+        assert task != null : "task must not be null";
+        lock.writeLock().lock();
+        try {
+            tasks.insert(index, task);
+            if (duplicates != null) {
+                duplicates.add(task);
+            }
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -36,12 +137,107 @@ class TaskList {
      *             if index is invalid
      */
     public void removeTask(int index) {
-        tasks.remove(index);
+        lock.writeLock().lock();
+        try {
+            Task removed = duplicates != null ? tasks.get(index) : null;
+            tasks.remove(index);
+            if (removed != null) {
+                duplicates.remove(removed);
+            }
+            removals++;
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /** Removes all tasks from the list. */
     public void clearTasks() {
-        tasks.clear();
+        lock.writeLock().lock();
+        try {
+            tasks.clear();
+            duplicates = null;
+            removals++;
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the task at the given zero-based index as done.
+     *
+     * @param index
+     *            index of the task (0-based)
+     * @return the marked task
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    public Task markDone(int index) {
+        lock.writeLock().lock();
+        try {
+            return setDone(index, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the task at the given zero-based index as not done.
+     *
+     * @param index
+     *            index of the task (0-based)
+     * @return the unmarked task
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    public Task markNotDone(int index) {
+        lock.writeLock().lock();
+        try {
+            return setDone(index, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fills this empty list straight from the bytes of a binary task file when
+     * the backend supports it.
+     *
+     * @param file
+     *            complete binary file contents starting at index 0
+     * @return true if loaded; false if the caller should read the tasks itself
+     */
+    boolean loadBinary(ByteBuffer file) {
+        lock.writeLock().lock();
+        try {
+            if (!tasks.loadBinary(file)) {
+                return false;
+            }
+            duplicates = null;
+            changed();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the not-done tasks due strictly before the given date, in list
+     * order.
+     *
+     * @param date
+     *            reference date
+     * @return due tasks
+     */
+    public List<Task> dueBefore(LocalDate date) {
+        assert date != null : "date must not be null";
+        lock.readLock().lock();
+        try {
+            return tasks.dueBefore(date);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -54,7 +250,12 @@ class TaskList {
      *             if index is invalid
      */
     public Task get(int index) {
-        return tasks.get(index);
+        lock.readLock().lock();
+        try {
+            return tasks.get(index);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -63,7 +264,27 @@ class TaskList {
      * @return size of the list
      */
     public int size() {
-        return tasks.size();
+        return size;
+    }
+
+    /**
+     * Returns a counter that grows whenever tasks are removed, so callers can
+     * tell whether any task has gone since they last looked.
+     *
+     * @return removal count
+     */
+    long removals() {
+        return removals;
+    }
+
+    /**
+     * Returns the tasks in list order as of the most recent write. The list is
+     * unmodifiable and unaffected by later writes.
+     *
+     * @return consistent view of the tasks
+     */
+    List<Task> snapshot() {
+        return currentSnapshot();
     }
 
     /**
@@ -74,7 +295,10 @@ class TaskList {
      */
     public void iterateTasks(TaskAction action) {
         assert action != null : "action must not be null";
-        tasks.forEach(action::apply);
+        List<Task> current = currentSnapshot();
+        for (int i = 0; i < current.size(); i++) {
+            action.apply(current.get(i));
+        }
     }
 
     /**
@@ -85,7 +309,48 @@ class TaskList {
      */
     public void iterateTasks(IndexTaskAction action) {
         assert action != null : "action must not be null";
-        IntStream.range(0, tasks.size()).forEach(i -> action.apply(tasks.get(i), i));
+        List<Task> current = currentSnapshot();
+        for (int i = 0; i < current.size(); i++) {
+            action.apply(current.get(i), i);
+        }
+    }
+
+    /**
+     * Iterates the tasks at indices [from, to) with their indices, clamped to the
+     * current size.
+     *
+     * @param from
+     *            first 0-based index, inclusive
+     * @param to
+     *            last 0-based index, exclusive
+     * @param action
+     *            callback executed for each task with its index
+     */
+    public void iterateTasks(int from, int to, IndexTaskAction action) {
+        assert action != null : "action must not be null";
+        assert from >= 0 && from <= to : "range must be non-negative and ordered";
+        List<Task> current = currentSnapshot();
+        for (int i = from; i < Math.min(to, current.size()); i++) {
+            action.apply(current.get(i), i);
+        }
+    }
+
+    /**
+     * Returns the tasks whose description contains the given text
+     * (case-sensitive), in list order.
+     *
+     * @param needle
+     *            text to search for
+     * @return matching tasks
+     */
+    public List<Task> find(String needle) {
+        assert needle != null : "needle must not be null";
+        lock.readLock().lock();
+        try {
+            return tasks.find(needle);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -94,13 +359,193 @@ class TaskList {
      * @return stream over tasks
      */
     public Stream<Task> stream() {
-        return tasks.stream();
+        return currentSnapshot().stream();
     }
 
-    /** Checks if a task with the same identity text exists. */
+    /**
+     * Checks if a task with the same type, description, dates and done flag
+     * exists, in constant time once the duplicate index is built.
+     *
+     * @param task
+     *            task to look for
+     * @return true if a matching task is in the list
+     */
     public boolean contains(Task task) {
         assert task != null : "task must not be null";
-        return tasks.stream().anyMatch(t -> t.toString().equals(task.toString()));
+        lock.readLock().lock();
+        try {
+            if (duplicates != null) {
+                return duplicates.contains(task);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            return duplicates().contains(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends tasks read from elsewhere, treating those whose content matches a
+     * task already in the list (or earlier in {@code incoming}) as the policy
+     * says. Under {@link DuplicatePolicy#MERGE}, every matching task takes the
+     * done flag of the last duplicate that matched it.
+     *
+     * @param incoming
+     *            tasks to add, in order
+     * @param policy
+     *            how to treat duplicates
+     * @return counts of added, skipped and updated tasks
+     */
+    MergeResult merge(List<Task> incoming, DuplicatePolicy policy) {
+        assert incoming != null : "incoming tasks must not be null";
+        assert policy != null : "policy must not be null";
+        lock.writeLock().lock();
+        try {
+            DuplicateIndex index = policy == DuplicatePolicy.ALLOW ? null : duplicates();
+            Map<DuplicateIndex.Key, Boolean> doneFlags = new HashMap<>();
+            int added = 0;
+            for (Task task : incoming) {
+                if (index == null || !index.containsContent(task)) {
+                    append(task);
+                    added++;
+                } else if (policy == DuplicatePolicy.MERGE) {
+                    doneFlags.put(DuplicateIndex.Key.of(task), task.isDone());
+                }
+            }
+            // Only keys where some listed task has the other flag need work
+            doneFlags.entrySet()
+                    .removeIf(flag -> !index.differsFrom(flag.getKey(), flag.getValue()));
+            int updated = doneFlags.isEmpty() ? 0 : applyDoneFlags(index, doneFlags);
+            // Also drops a snapshot that copied the flags just updated
+            if (added > 0 || updated > 0) {
+                changed();
+            }
+            return new MergeResult(added, incoming.size() - added, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the callback run after every change to the list, including marking
+     * and unmarking. It runs on the writing thread with the write lock held, so
+     * it must be quick and must not call back into this list.
+     *
+     * @param listener
+     *            callback, replacing any previous one
+     */
+    void setChangeListener(Runnable listener) {
+        assert listener != null : "listener must not be null";
+        changeListener = listener;
+    }
+
+    // Called with the write lock held
+    private void append(Task task) {
+        tasks.add(task);
+        if (duplicates != null) {
+            duplicates.add(task);
+        }
+    }
+
+    // Called with the write lock held
+    private Task setDone(int index, boolean isDone) {
+        boolean wasDone = duplicates != null && tasks.get(index).isDone();
+        Task task = tasks.setDone(index, isDone);
+        if (duplicates != null) {
+            duplicates.setDone(task, wasDone, isDone);
+        }
+        if (!tasks.holdsTasks()) {
+            // The snapshot copied the old flag; a snapshot of held tasks
+            // shares the changed object and stays valid
+            snapshot = null;
+        }
+        changeListener.run();
+        return task;
+    }
+
+    // Called with the write lock held. Tasks held by the store are changed
+    // through the index directly; other stores need one pass over the list.
+    private int applyDoneFlags(DuplicateIndex index, Map<DuplicateIndex.Key, Boolean> doneFlags) {
+        int updated = 0;
+        if (tasks.holdsTasks()) {
+            for (Map.Entry<DuplicateIndex.Key, Boolean> flag : doneFlags.entrySet()) {
+                boolean isDone = flag.getValue();
+                for (Task task : index.tasks(flag.getKey())) {
+                    if (task.isDone() != isDone) {
+                        tasks.setDone(task, isDone);
+                        index.setDone(task, !isDone, isDone);
+                        updated++;
+                    }
+                }
+            }
+            return updated;
+        }
+        List<Task> current = tasks.snapshot();
+        for (int i = 0; i < current.size(); i++) {
+            Task task = current.get(i);
+            Boolean isDone = doneFlags.get(DuplicateIndex.Key.of(task));
+            if (isDone != null && isDone != task.isDone()) {
+                tasks.setDone(i, isDone);
+                index.setDone(task, !isDone, isDone);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    // Called with the write lock held; builds the index on first use
+    private DuplicateIndex duplicates() {
+        if (duplicates == null) {
+            DuplicateIndex index = new DuplicateIndex(tasks.holdsTasks());
+            tasks.snapshot().forEach(index::add);
+            duplicates = index;
+        }
+        return duplicates;
+    }
+
+    // Called with the write lock held after the list order or a done flag
+    // changed
+    private void changed() {
+        snapshot = null;
+        size = tasks.size();
+        changeListener.run();
+    }
+
+    private List<Task> currentSnapshot() {
+        List<Task> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        // The read lock keeps writers out, so the copy cannot be stale when
+        // published; the next write clears it again
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                current = tasks.snapshot();
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Counts of what a {@link #merge(List, DuplicatePolicy)} did. */
+    static final class MergeResult {
+        final int added;
+        final int skipped;
+        final int updated;
+
+        MergeResult(int added, int skipped, int updated) {
+            this.added = added;
+            this.skipped = skipped;
+            this.updated = updated;
+        }
     }
 
     @FunctionalInterface
@@ -0,0 +1,167 @@
+package meep.tool;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Storage backend behind a {@link TaskList}: holds the tasks in list order and
+ * answers the list's queries.
+ *
+ * <p>
+ * Implementations are not thread-safe; {@link TaskList} serializes writers and
+ * only reads them under its read lock. The backend is chosen with
+ * {@code -Dmeep.tasks}: {@code objects} (default) keeps {@link Task} objects,
+ * {@code columnar} keeps primitive columns and builds tasks on demand.
+ */
+interface TaskStore {
+    /**
+     * Creates the backend selected by the {@code meep.tasks} system property.
+     *
+     * @return a new, empty store
+     */
+    static TaskStore create() {
+        String backend = System.getProperty("meep.tasks", "objects");
+        switch (backend) {
+            case "columnar" :
+                return new ColumnarTaskStore();
+            case "offheap" :
+                return new OffHeapTaskStore();
+            case "objects" :
+                return new ObjectTaskStore();
+            default :
+                throw new IllegalArgumentException("Unknown task store: " + backend);
+        }
+    }
+
+    /**
+     * Appends a task.
+     *
+     * @param task
+     *            task to add
+     */
+    void add(Task task);
+
+    /**
+     * Inserts a task at a zero-based position, shifting later tasks up by one.
+     *
+     * @param index
+     *            position for the task, from 0 to {@link #size()}
+     * @param task
+     *            task to insert
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    void insert(int index, Task task);
+
+    /**
+     * Removes the task at a zero-based index.
+     *
+     * @param index
+     *            index of the task to remove
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    void remove(int index);
+
+    /** Removes every task. */
+    void clear();
+
+    /**
+     * Returns the task at a zero-based index.
+     *
+     * @param index
+     *            index to fetch
+     * @return the task; for stores that do not keep task objects, a new view
+     *         that does not write through
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    Task get(int index);
+
+    /**
+     * Sets the completion flag of the task at a zero-based index.
+     *
+     * @param index
+     *            index of the task
+     * @param isDone
+     *            new completion flag
+     * @return the task after the change
+     * @throws IndexOutOfBoundsException
+     *             if index is invalid
+     */
+    Task setDone(int index, boolean isDone);
+
+    /**
+     * Returns whether this store keeps the task objects passed to it, so that
+     * {@link #get(int)} and {@link #snapshot()} hand out those objects and
+     * {@link #setDone(Task, boolean)} can change a task without its position.
+     *
+     * @return true if stored tasks are live objects
+     */
+    default boolean holdsTasks() {
+        return false;
+    }
+
+    /**
+     * Sets the completion flag of a stored task, found by identity.
+     *
+     * @param task
+     *            task object held by this store
+     * @param isDone
+     *            new completion flag
+     * @throws UnsupportedOperationException
+     *             if the store does not hold task objects
+     */
+    default void setDone(Task task, boolean isDone) {
+        throw new UnsupportedOperationException("store does not hold task objects");
+    }
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return size of the store
+     */
+    int size();
+
+    /**
+     * Returns the not-done tasks due strictly before the given date, in list
+     * order.
+     *
+     * @param date
+     *            reference date
+     * @return due tasks
+     */
+    List<Task> dueBefore(LocalDate date);
+
+    /**
+     * Returns the tasks whose description contains the given text
+     * (case-sensitive), in list order.
+     *
+     * @param needle
+     *            text to search for
+     * @return matching tasks
+     */
+    List<Task> find(String needle);
+
+    /**
+     * Returns an unmodifiable random-access copy of the tasks in list order that
+     * later writes do not affect.
+     *
+     * @return consistent view of the tasks
+     */
+    List<Task> snapshot();
+
+    /**
+     * Fills this empty store straight from the bytes of a binary task file, for
+     * stores that can do so faster than adding the tasks one by one.
+     *
+     * @param file
+     *            complete {@link BinaryTaskCodec} file contents starting at index 0
+     * @return true if the tasks were loaded; false, leaving the store unchanged,
+     *         if the caller should add them itself
+     */
+    default boolean loadBinary(ByteBuffer file) {
+        return false;
+    }
+}
@@ -1,5 +1,7 @@
 package meep.tool;
 
+import java.time.LocalDate;
+
 /** Todo task with only a description. */
 class ToDoTask extends Task {
     /**
@@ -26,8 +28,8 @@ class ToDoTask extends Task {
 
     /** Returns false as Todo tasks have no due date. */
     @Override
-    public boolean isDue(String time) {
-        assert time != null : "time must not be null";
+    public boolean isDue(LocalDate date) {
+        assert date != null : "date must not be null";
         return false;
     }
 
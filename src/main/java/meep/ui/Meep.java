@@ -1,5 +1,13 @@
 package meep.ui;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import meep.tool.AutoSaver;
+import meep.tool.BatchRunner;
 import meep.tool.Command;
 import meep.tool.Pair;
 import meep.tool.Parser;
@@ -8,31 +16,68 @@ import meep.tool.Parser;
  * Application entry point for Meep's console app.
  *
  * <p>
- * Runs a simple REPL until the user types "bye".
+ * Runs a simple REPL until the user types "bye", saving task changes in the
+ * background (see {@link AutoSaver}), or with {@code --batch [file]}
+ * executes a command script (standard input if no file is given) without
+ * prompts or framing.
  */
 public class Meep {
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 13;
+
     /**
      * Starts the Meep CLI.
      *
      * @param args
+     *            {@code --batch} optionally followed by a script path; otherwise
      *            ignored
      */
     public static void main(String[] args) {
-        Ui.printResponse("Hello from Meep!\nWhat can I do for you?");
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : null);
+            return;
+        }
+        OutputSink previous = Ui.setSink(new OutputSink.Buffered(System.out, OUTPUT_BUFFER_SIZE));
+        AutoSaver autoSaver = AutoSaver.start();
+        try {
+            Ui.printResponse("Hello from Meep!\nWhat can I do for you?");
 
-        String message = "";
-        message = Ui.readCommand();
-        while (!message.equals("bye")) {
-            Command c = Parser.parse(message);
-            if (c != null) {
-                String response = c.execute();
-                if (response != null && !response.isEmpty()) {
-                    Ui.printResponse(response);
+            String message = "";
+            message = Ui.readCommand();
+            while (!message.equals("bye")) {
+                Command c = Parser.parse(message);
+                if (c != null) {
+                    Ui.printResponse(c);
                 }
+                message = Ui.readCommand();
             }
-            message = Ui.readCommand();
+            Ui.printResponse("Bye. Hope to see you again soon!");
+        } finally {
+            if (autoSaver != null) {
+                autoSaver.close();
+            }
+            Ui.setSink(previous);
+        }
+    }
+
+    // Runs a script from the given file, or standard input if path is null
+    private static void runBatch(String path) {
+        Charset charset = Charset.defaultCharset();
+        OutputSink.Async sink = new OutputSink.Async(System.out);
+        OutputSink previous = Ui.setSink(sink);
+        try (BufferedReader in =
+                path == null
+                        ? new BufferedReader(new InputStreamReader(System.in, charset))
+                        : Files.newBufferedReader(Path.of(path), charset)) {
+            int failures = BatchRunner.run(in, Ui.writer());
+            if (failures > 0) {
+                System.err.println(failures + " command(s) failed.");
+            }
+        } catch (IOException e) {
+            System.err.println("Error running batch: " + e.getMessage());
+        } finally {
+            Ui.setSink(previous);
+            sink.close();
         }
-        Ui.printResponse("Bye. Hope to see you again soon!");
     }
 
     /**
@@ -0,0 +1,203 @@
+package meep.ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Destination for console output written through {@link Ui}.
+ *
+ * <p>
+ * Implementations differ only in when text reaches the underlying stream:
+ * immediately, in batches, or from a background thread.
+ */
+public interface OutputSink {
+    /**
+     * Queues text for output. The text is written as-is; callers add any line
+     * separators.
+     *
+     * @param text
+     *            content to write
+     */
+    void write(String text);
+
+    /** Blocks until everything written so far has reached the underlying stream. */
+    void flush();
+
+    /**
+     * Returns a writer that forwards to this sink, for code that expects a
+     * {@link Writer}.
+     *
+     * @return a writer whose flush and close flush this sink
+     */
+    default Writer asWriter() {
+        return new Writer() {
+            @Override
+            public void write(String str) {
+                OutputSink.this.write(str);
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                OutputSink.this.write(new String(cbuf, off, len));
+            }
+
+            @Override
+            public void flush() {
+                OutputSink.this.flush();
+            }
+
+            @Override
+            public void close() {
+                OutputSink.this.flush();
+            }
+        };
+    }
+
+    /** Writes straight to the current {@link System#out} on every call. */
+    class Direct implements OutputSink {
+        @Override
+        public void write(String text) {
+            System.out.print(text);
+        }
+
+        @Override
+        public void flush() {
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Collects text in memory and writes it out once the buffer reaches a size
+     * threshold or on {@link #flush()}.
+     */
+    class Buffered implements OutputSink {
+        private final PrintStream target;
+        private final int threshold;
+        private final StringBuilder buffer;
+
+        /**
+         * Creates a buffered sink.
+         *
+         * @param target
+         *            stream to write to
+         * @param threshold
+         *            buffered character count that triggers a write
+         */
+        public Buffered(PrintStream target, int threshold) {
+            assert target != null : "target must not be null";
+            assert threshold > 0 : "threshold must be positive";
+            this.target = target;
+            this.threshold = threshold;
+            this.buffer = new StringBuilder(threshold);
+        }
+
+        @Override
+        public void write(String text) {
+            buffer.append(text);
+            if (buffer.length() >= threshold) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (buffer.length() > 0) {
+                target.append(buffer);
+                buffer.setLength(0);
+            }
+            target.flush();
+        }
+    }
+
+    /**
+     * Hands text to a background thread that writes it through a buffered
+     * writer, flushing whenever it catches up with the producer. Writes block
+     * only when the queue is full.
+     */
+    class Async implements OutputSink {
+        private static final int QUEUE_CAPACITY = 1024;
+
+        private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        private final Writer writer;
+        private final Thread thread;
+        // Guarded by this: texts queued, and texts written and flushed
+        private long queued = 0;
+        private long flushed = 0;
+
+        /**
+         * Creates the sink and starts its daemon writer thread.
+         *
+         * @param target
+         *            stream to write to
+         */
+        public Async(PrintStream target) {
+            assert target != null : "target must not be null";
+            this.writer = new BufferedWriter(new OutputStreamWriter(target), 1 << 16);
+            this.thread = new Thread(this::drain, "meep-output");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void write(String text) {
+            synchronized (this) {
+                queued++;
+            }
+            try {
+                queue.put(text);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    queued--;
+                }
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void flush() {
+            try {
+                while (flushed < queued) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Flushes pending output and stops the writer thread. */
+        public void close() {
+            flush();
+            thread.interrupt();
+        }
+
+        private void drain() {
+            long written = 0;
+            try {
+                while (true) {
+                    String text = queue.take();
+                    written++;
+                    try {
+                        writer.write(text);
+                        if (!queue.isEmpty()) {
+                            continue;
+                        }
+                        writer.flush();
+                    } catch (IOException e) {
+                        // nowhere to report console failures; drop the text
+                    }
+                    synchronized (this) {
+                        flushed = written;
+                        notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // daemon thread; exits with the JVM
+            }
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package meep.ui;
 
+import java.io.Writer;
 import java.util.Scanner;
+import meep.tool.Command;
 
 /**
  * Console I/O helper for Meep.
  *
  * <p>
  * Abstracts reading user input and printing framed responses to standard out.
+ * Output goes through a replaceable {@link OutputSink}; the default writes
+ * straight to {@link System#out}.
  */
 public class Ui {
+    private static final String RULE = "-".repeat(50);
+
     private static Scanner scanner = new Scanner(System.in);
+    private static OutputSink sink = new OutputSink.Direct();
 
     /**
      * Replaces the input scanner used by {@link #readCommand()}.
@@ -23,12 +30,43 @@ public class Ui {
     }
 
     /**
-     * Reads a single line command from standard input.
+     * Replaces the output sink, flushing the previous one first.
+     *
+     * @param newSink
+     *            a non-null sink
+     * @return the previous sink
+     */
+    static OutputSink setSink(OutputSink newSink) {
+        assert newSink != null : "sink must not be null";
+        OutputSink previous = sink;
+        previous.flush();
+        sink = newSink;
+        return previous;
+    }
+
+    /**
+     * Returns a writer over the current sink, for unframed output.
+     *
+     * @return writer forwarding to the current sink
+     */
+    static Writer writer() {
+        return sink.asWriter();
+    }
+
+    /** Writes out anything the current sink is still holding. */
+    public static void flush() {
+        sink.flush();
+    }
+
+    /**
+     * Reads a single line command from standard input, first flushing pending
+     * output so the user sees every response before the prompt blocks.
      *
      * @return the raw line read from standard input
      */
     public static String readCommand() {
         assert scanner != null : "scanner must be initialized";
+        sink.flush();
         String command = scanner.nextLine();
         return command;
     }
@@ -41,8 +79,31 @@ public class Ui {
      */
     public static void printResponse(String response) {
         assert response != null : "response must not be null";
-        System.out.println("-".repeat(50));
-        System.out.println(response);
-        System.out.println("-".repeat(50));
+        String separator = System.lineSeparator();
+        sink.write(RULE + separator + response + separator + RULE + separator);
+    }
+
+    /**
+     * Executes a command and prints its response framed by horizontal rules,
+     * writing each chunk to the sink as it is produced. Prints nothing for an
+     * empty response.
+     *
+     * @param command
+     *            command to execute
+     */
+    public static void printResponse(Command command) {
+        assert command != null : "command must not be null";
+        String separator = System.lineSeparator();
+        boolean[] isFramed = {false};
+        command.execute(chunk -> {
+            if (!isFramed[0]) {
+                sink.write(RULE + separator);
+                isFramed[0] = true;
+            }
+            sink.write(chunk);
+        });
+        if (isFramed[0]) {
+            sink.write(separator + RULE + separator);
+        }
     }
 }
@@ -0,0 +1,74 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AutoSaverTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.createTempFile("meep-autosave", ".txt");
+        Files.delete(file);
+        Storage.setSaveFile(file.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+        Storage.setSaveFile("data/meep.txt");
+    }
+
+    @Test
+    void burstOfChanges_isWrittenOnceAfterDelay() throws Exception {
+        TaskList tasks = new TaskList();
+        AutoSaver saver = new AutoSaver(tasks, 200);
+        assertTrue(Storage.saveTasks(tasks, new StringBuilder()));
+        Files.delete(file);
+        for (int i = 0; i < 100; i++) {
+            tasks.addTask(Task.buildTask("todo burst " + i).getFirst());
+        }
+        tasks.markDone(0);
+        assertTrue(saver.isDirty());
+        assertFalse(Files.exists(file));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        // The file is renamed into place, so once it exists it is complete
+        while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(100, Files.readAllLines(file).size());
+        assertTrue(Files.readAllLines(file).get(0).startsWith("|T|1|"));
+        assertFalse(Files.exists(Path.of(file + ".tmp")));
+
+        tasks.removeTask(0);
+        assertTrue(saver.close());
+        assertEquals(99, Files.readAllLines(file).size());
+    }
+
+    @Test
+    void sessionWithoutLoad_leavesSavedTasksAlone() throws Exception {
+        Files.writeString(file, "|T|0|one|\n|T|0|two|\n|T|1|three|\n");
+        TaskList tasks = new TaskList();
+        AutoSaver saver = new AutoSaver(tasks, 50);
+        tasks.addTask(Task.buildTask("todo buy milk").getFirst());
+        Thread.sleep(300);
+        assertTrue(saver.close());
+        assertEquals(3, Files.readAllLines(file).size());
+
+        // Once loaded, the list holds the saved tasks and autosave is safe
+        tasks = new TaskList();
+        saver = new AutoSaver(tasks, 50);
+        assertTrue(Storage.loadTasks(tasks, new StringBuilder()));
+        tasks.addTask(Task.buildTask("todo buy milk").getFirst());
+        assertTrue(saver.close());
+        assertEquals(4, Files.readAllLines(file).size());
+    }
+}
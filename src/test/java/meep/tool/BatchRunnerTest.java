@@ -0,0 +1,62 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchRunnerTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.createTempFile("meep-batch", ".txt");
+        Files.delete(file);
+        Storage.setSaveFile(file.toString());
+        Command.TASKS.clearTasks();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Command.TASKS.clearTasks();
+        Files.deleteIfExists(file);
+        Storage.setSaveFile("data/meep.txt");
+    }
+
+    private static int run(String script, StringWriter out) throws Exception {
+        return BatchRunner.run(new BufferedReader(new StringReader(script)), out);
+    }
+
+    @Test
+    void runsScriptUnframedAndSavesOnceAtEnd() throws Exception {
+        StringWriter out = new StringWriter();
+        int failures = run("todo a\nsave\ntodo b\nsave\nmark 2\nbye\ntodo ignored\n", out);
+
+        assertEquals(0, failures);
+        String s = out.toString();
+        assertFalse(s.contains("-".repeat(50)));
+        assertEquals(1, s.split("Tasks saved successfully.", -1).length - 1);
+        assertTrue(s.indexOf("Task 2 marked as done.") < s.indexOf("Tasks saved successfully."));
+        assertEquals(2, Command.TASKS.size());
+        assertEquals(2, Files.readAllLines(file).size());
+    }
+
+    @Test
+    void failingLines_areReportedAndCounted() throws Exception {
+        StringWriter out = new StringWriter();
+        int failures = run("mark x\ntodo ok\n", out);
+
+        assertEquals(1, failures);
+        assertTrue(out.toString().startsWith("Error: "));
+        assertEquals(1, Command.TASKS.size());
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,118 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ColumnarTaskStoreTest {
+    private static List<String> strings(List<Task> tasks) {
+        return tasks.stream().map(Task::toString).toList();
+    }
+
+    private static Task randomTask(Random random, int i) {
+        switch (random.nextInt(3)) {
+            case 0 :
+                return Task.buildTask("todo read book " + i).getFirst();
+            case 1 :
+                String by = "2025-01-" + (10 + i % 20);
+                return Task.buildTask("deadline submit ü" + i + " /by " + by).getFirst();
+            default :
+                String to = "2025-02-" + (10 + i % 9);
+                return Task.buildTask("event trip " + i + " /from 2025-01-01 /to " + to).getFirst();
+        }
+    }
+
+    @Test
+    void matchesObjectStore_underRandomOperations() {
+        TaskList objects = new TaskList(new ObjectTaskStore());
+        TaskList columns = new TaskList(new ColumnarTaskStore());
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || objects.size() == 0) {
+                Task task = randomTask(random, i);
+                objects.addTask(task);
+                columns.addTask(Task.load(Task.saveString(task)));
+            } else if (op < 8) {
+                int index = random.nextInt(objects.size());
+                assertEquals(
+                        objects.markDone(index).toString(),
+                        columns.markDone(index).toString());
+            } else if (op < 9) {
+                int index = random.nextInt(objects.size());
+                assertEquals(
+                        objects.markNotDone(index).toString(),
+                        columns.markNotDone(index).toString());
+            } else {
+                int index = random.nextInt(objects.size());
+                objects.removeTask(index);
+                columns.removeTask(index);
+            }
+            if (i % 7 == 0) {
+                // Mid-list insert
+                int index = random.nextInt(objects.size() + 1);
+                Task task = randomTask(random, i);
+                objects.insertTask(index, task);
+                columns.insertTask(index, Task.load(Task.saveString(task)));
+            }
+        }
+        assertEquals(strings(objects.snapshot()), strings(columns.snapshot()));
+        for (String needle : new String[] {"1", "ü1", "trip 1", "book 19", "nothing"}) {
+            assertEquals(strings(objects.find(needle)), strings(columns.find(needle)));
+        }
+        LocalDate date = LocalDate.of(2025, 2, 14);
+        assertEquals(strings(objects.dueBefore(date)), strings(columns.dueBefore(date)));
+    }
+
+    @Test
+    void dueBefore_listOrder() {
+        TaskList list = new TaskList(new ColumnarTaskStore());
+        list.addTask(Task.buildTask("deadline b /by 2025-01-05").getFirst());
+        list.addTask(Task.buildTask("event a /from 2024-12-01 /to 2025-01-02").getFirst());
+        list.addTask(Task.buildTask("todo c").getFirst());
+        list.addTask(Task.buildTask("deadline d /by 2025-01-09").getFirst());
+        list.markDone(3);
+        List<Task> due = list.dueBefore(LocalDate.of(2025, 1, 10));
+        assertEquals(2, due.size());
+        assertTrue(due.get(0).toString().startsWith("[D][ ] b"));
+        assertTrue(due.get(1).toString().startsWith("[E][ ] a"));
+    }
+
+    @Test
+    void snapshot_isUnaffectedByLaterWrites() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        store.add(Task.buildTask("todo first").getFirst());
+        store.add(Task.buildTask("todo second").getFirst());
+        List<Task> before = store.snapshot();
+        store.setDone(0, true);
+        store.remove(1);
+        store.add(Task.buildTask("todo third").getFirst());
+        assertEquals(List.of("[T][ ] first", "[T][ ] second"), strings(before));
+        assertEquals(List.of("[T][X] first", "[T][ ] third"), strings(store.snapshot()));
+        store.clear();
+        assertEquals(2, before.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(0));
+    }
+
+    @Test
+    void remove_compactsDescriptionsWithoutLosingTasks() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        String padding = "x".repeat(1000);
+        for (int i = 0; i < 200; i++) {
+            store.add(Task.buildTask("todo " + i + padding).getFirst());
+        }
+        for (int i = 0; i < 150; i++) {
+            store.remove(0);
+        }
+        assertEquals(50, store.size());
+        assertEquals("[T][ ] 150" + padding, store.get(0).toString());
+        assertEquals("[T][ ] 199" + padding, store.get(49).toString());
+        assertTrue(store.find("149x").isEmpty());
+        assertEquals(1, store.find("199x").size());
+    }
+}
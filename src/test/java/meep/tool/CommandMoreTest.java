@@ -26,6 +26,7 @@ class CommandMoreTest {
     @AfterEach
     void tearDown() {
         System.setOut(old);
+        Command.setDuplicatePolicy(DuplicatePolicy.ALLOW);
     }
 
     @Test
@@ -55,6 +56,35 @@ class CommandMoreTest {
         assertTrue(s2.contains("Tasks loaded successfully."));
     }
 
+    @Test
+    void duplicatePolicy_appliesToAddAndLoad() {
+        Parser.parse("todo x");
+        Parser.parse("save");
+        Parser.parse("load");
+        assertEquals(2, Command.TASKS.size());
+
+        Command.setDuplicatePolicy(DuplicatePolicy.REJECT);
+        out.reset();
+        Parser.parse("todo x");
+        assertTrue(out.toString().contains("You already have this task"));
+        out.reset();
+        Parser.parse("load");
+        assertTrue(out.toString().contains("Added 0, skipped 1 already listed, updated 0."));
+        assertEquals(2, Command.TASKS.size());
+    }
+
+    @Test
+    void loadMerge_isIdempotent() {
+        Parser.parse("todo x");
+        Parser.parse("todo y");
+        Parser.parse("save");
+        Parser.parse("load merge");
+        out.reset();
+        Parser.parse("load merge");
+        assertTrue(out.toString().contains("Added 0, skipped 2 already listed, updated 0."));
+        assertEquals(2, Command.TASKS.size());
+    }
+
     @Test
     void checkDue_invalidDateReportsFormat() {
         out.reset();
@@ -64,6 +94,34 @@ class CommandMoreTest {
         assertTrue(s.contains(Task.getInputDtfPattern()));
     }
 
+    @Test
+    void checkDue_invalidDateKeepsTheListUntouched() {
+        Parser.parse("deadline report /by 2025-01-01");
+        for (String date : new String[] {"", "2025/01/01", "tomorrow"}) {
+            String response = new Command.CheckDueCommand("check due " + date).execute();
+            assertEquals("Invalid date format. Please use: yyyy-MM-dd", response,
+                    "wrong response for '" + date + "'");
+        }
+        assertEquals(1, Command.TASKS.size());
+    }
+
+    @Test
+    void checkDue_listsTasksInListOrder() {
+        Parser.parse("deadline latest /by 2025-03-01");
+        Parser.parse("event sooner /from 2025-01-01 /to 2025-01-05");
+        Parser.parse("deadline soonest /by 2025-01-02");
+        // Re-indexes the first task behind the others
+        Parser.parse("mark 1");
+        Parser.parse("unmark 1");
+
+        out.reset();
+        Parser.parse("check due 2025-06-01");
+        String s = out.toString();
+        assertTrue(s.indexOf("Checking for due tasks on ") < s.indexOf("latest"));
+        assertTrue(s.indexOf("latest") < s.indexOf("sooner"));
+        assertTrue(s.indexOf("sooner") < s.indexOf("soonest"));
+    }
+
     @Test
     void findOrdering_reflectsInsertionOrder() {
         Parser.parse("todo Alpha");
@@ -85,4 +143,26 @@ class CommandMoreTest {
         assertEquals(-1, out.toString().indexOf("ERROR"));
         assertTrue(out.toString().contains("Bye. Hope to see you again soon!"));
     }
+
+    @Test
+    void listRange_streamsOnlyRequestedTasks() {
+        for (int i = 1; i <= 5; i++) {
+            Command.TASKS.addTask(Task.buildTask("todo t" + i).getFirst());
+        }
+        Command list = Parser.parseQuiet("list 2-3");
+        java.util.List<String> chunks = new java.util.ArrayList<>();
+        list.execute(chunks::add);
+
+        String s = String.join("", chunks);
+        assertEquals(list.execute(), s);
+        assertTrue(chunks.size() > 3);
+        assertTrue(s.startsWith("Here are tasks 2-3:"));
+        assertTrue(s.contains(" 2. [T][ ] t2") && s.contains(" 3. [T][ ] t3"));
+        assertTrue(!s.contains("t1") && !s.contains("t4"));
+        assertTrue(s.contains("Now you have 5 tasks in the list."));
+
+        assertTrue(Parser.parseQuiet("list 3-2") instanceof Command.UnknownCommand);
+        assertTrue(Parser.parseQuiet("list x-2") instanceof Command.UnknownCommand);
+        assertTrue(Parser.parseQuiet("list messages 1-2") instanceof Command.ListMessagesCommand);
+    }
 }
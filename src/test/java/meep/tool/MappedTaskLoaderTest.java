@@ -0,0 +1,132 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Checks that the byte-level loader agrees with {@link Task#load(String)}. */
+class MappedTaskLoaderTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.createTempFile("meep-mapped", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void matchesStringLoader_forCrlfAndUnterminatedLines() throws Exception {
+        String[] lines = {
+            "|T|1|read book|", "|D|0|submit|2025-12-31|", "|E|0|camp|2025-12-01-2025-12-03|extra|"
+        };
+        Files.writeString(file, lines[0] + "\r\n" + lines[1] + "\n" + lines[2]);
+
+        TaskList loaded = new TaskList();
+        assertTrue(MappedTaskLoader.load(file.toFile(), loaded));
+        assertEquals(lines.length, loaded.size());
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(Task.load(lines[i]).toString(), loaded.get(i).toString());
+        }
+    }
+
+    @Test
+    void malformedRecords_throwLikeStringLoader() throws Exception {
+        Files.writeString(file, "|T|0|ok|\n|D|1|x||\n");
+        TaskList loaded = new TaskList();
+        assertThrows(
+                ArrayIndexOutOfBoundsException.class,
+                () -> MappedTaskLoader.load(file.toFile(), loaded));
+        assertEquals(1, loaded.size());
+
+        Files.writeString(file, "\n");
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> MappedTaskLoader.load(file.toFile(), new TaskList()));
+    }
+
+    @Test
+    void largeFile_isMappedAndFullyRead() throws Exception {
+        StringBuilder content = new StringBuilder();
+        int count = 60_000;
+        for (int i = 0; i < count; i++) {
+            content.append("|T|0|task number ").append(i).append("|\n");
+        }
+        Files.writeString(file, content);
+        assertTrue(Files.size(file) > 1 << 20);
+
+        TaskList loaded = new TaskList();
+        assertTrue(MappedTaskLoader.load(file.toFile(), loaded));
+        assertEquals(count, loaded.size());
+        assertEquals("[T][ ] task number 59999", loaded.get(count - 1).toString());
+    }
+
+    @Test
+    void parallelLoad_keepsFileOrderAndFailurePoint() throws Exception {
+        StringBuilder content = new StringBuilder();
+        int count = 400_000;
+        int bad = 300_000;
+        for (int i = 0; i < count; i++) {
+            content.append(i == bad ? "|X|0|bad|" : "|T|0|parallel task " + i + "|").append('\n');
+        }
+        Files.writeString(file, content);
+        assertTrue(Files.size(file) > 8 << 20);
+
+        TaskList loaded = new TaskList();
+        assertThrows(
+                IllegalArgumentException.class, () -> MappedTaskLoader.load(file.toFile(), loaded));
+        assertEquals(bad, loaded.size());
+        for (int i = 0; i < bad; i += 997) {
+            assertEquals("[T][ ] parallel task " + i, loaded.get(i).toString());
+        }
+    }
+
+    @Test
+    void loadChanged_parsesOnlyUnknownRecords() throws Exception {
+        Files.writeString(file, "|T|0|a|\n|T|0|b|\n|D|0|c|2025-01-01|");
+        List<Task> changed = new ArrayList<>();
+        long[] known = MappedTaskLoader.loadChanged(file.toFile(), new long[0], changed);
+        assertEquals(3, known.length);
+        assertEquals(3, changed.size());
+
+        Files.writeString(file, "|T|0|a|\n|T|1|b|\n|D|0|c|2025-01-01|\n|T|0|d|\n");
+        changed.clear();
+        long[] next = MappedTaskLoader.loadChanged(file.toFile(), known, changed);
+        assertEquals(4, next.length);
+        assertEquals(
+                List.of("[T][X] b", "[T][ ] d"),
+                changed.stream().map(Task::toString).toList());
+
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(Storage.Format.BINARY);
+        try {
+            TaskList tasks = new TaskList();
+            tasks.addTask(Task.buildTask("todo a").getFirst());
+            tasks.addTask(Task.buildTask("event e /from 2025-01-01 /to 2025-01-03").getFirst());
+            assertTrue(Storage.saveTasks(tasks, new StringBuilder()));
+            changed.clear();
+            known = MappedTaskLoader.loadChanged(file.toFile(), new long[0], changed);
+            assertEquals(2, changed.size());
+            tasks.markDone(1);
+            assertTrue(Storage.saveTasks(tasks, new StringBuilder()));
+            changed.clear();
+            MappedTaskLoader.loadChanged(file.toFile(), known, changed);
+            assertEquals(1, changed.size());
+            assertTrue(changed.get(0).isDone());
+        } finally {
+            Storage.setFormat(Storage.Format.TEXT);
+            Storage.setSaveFile("data/meep.txt");
+        }
+    }
+}
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
@@ -61,4 +63,36 @@ class MessageListTest {
         assertThrows(IndexOutOfBoundsException.class, () -> list.removeMessage(0));
         assertThrows(IndexOutOfBoundsException.class, () -> list.removeMessage(-1));
     }
+
+    @Test
+    void boundedList_spillsOldestAndPagesThroughHistory() throws Exception {
+        Path history = Files.createTempFile("meep-history", ".txt");
+        Files.writeString(history, "[2020-01-01 00:00:00] earlier session\n");
+        try {
+            MessageList list = new MessageList(8, history.toFile());
+            for (int i = 0; i < 20; i++) {
+                list.addMessage("m" + i + (i == 3 ? "\nsecond line" : ""));
+            }
+            assertEquals(20, list.size());
+            // 12 spilled in six batches of two, with the newest 8 still in memory
+            assertEquals(13, Files.readAllLines(history).size());
+
+            StringBuilder page = new StringBuilder();
+            list.iterateMessages(
+                    3,
+                    13,
+                    (m, idx) -> page.append(idx)
+                            .append('=')
+                            .append(m.toString().substring(22))
+                            .append(';'));
+            assertTrue(page.toString().startsWith("3=m3\nsecond line;4=m4;"));
+            assertTrue(page.toString().endsWith("11=m11;12=m12;"));
+            assertEquals(20, list.stream().count());
+
+            assertThrows(UnsupportedOperationException.class, () -> list.removeMessage(0));
+            assertTrue(list.removeMessage(19).toString().endsWith(" m19"));
+        } finally {
+            Files.deleteIfExists(history);
+        }
+    }
 }
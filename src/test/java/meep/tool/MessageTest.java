@@ -1,7 +1,11 @@
 package meep.tool;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class MessageTest {
@@ -20,4 +24,36 @@ class MessageTest {
         String regex = "\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\] x";
         assertTrue(s.matches(regex));
     }
+
+    @Test
+    void appendTo_matchesFormatterAcrossDates() {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        LocalDateTime[] times = {
+            LocalDateTime.of(1970, 1, 1, 0, 0, 0),
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59),
+            LocalDateTime.of(2000, 2, 29, 12, 5, 9),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_000_000),
+            LocalDateTime.of(2100, 3, 1, 7, 0, 30),
+            LocalDateTime.of(812, 6, 15, 1, 2, 3)
+        };
+        for (LocalDateTime time : times) {
+            Message m = new Message("x", time);
+            assertEquals("[" + time.format(format) + "] x", m.toString());
+            assertEquals(m.toString(), Message.parse(m.toString()).toString());
+        }
+    }
+
+    @Test
+    void toString_roundTripsThroughParse() {
+        Random random = new Random(14);
+        long first = Message.toLocalMillis(LocalDateTime.of(1, 1, 1, 0, 0));
+        long last = Message.toLocalMillis(LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+        for (int i = 0; i < 10_000; i++) {
+            long time = first + (long) (random.nextDouble() * (last - first));
+            Message m = new Message("x", time);
+            Message parsed = Message.parse(m.toString());
+            assertEquals(Math.floorDiv(time, 1000) * 1000, parsed.getTime());
+            assertEquals(m.toString(), parsed.toString());
+        }
+    }
 }
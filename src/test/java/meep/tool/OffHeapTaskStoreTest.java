@@ -0,0 +1,249 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class OffHeapTaskStoreTest {
+    private Path tempDir;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Storage.setFormat(Storage.Format.TEXT);
+        Storage.setSaveFile("data/meep.txt");
+        if (tempDir != null) {
+            Files.walk(tempDir)
+                    .sorted(java.util.Comparator.reverseOrder())
+                    .forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static List<String> strings(List<Task> tasks) {
+        return tasks.stream().map(Task::toString).toList();
+    }
+
+    private static Task randomTask(Random random, int i) {
+        // Vary description lengths so records differ in size
+        String text = "x".repeat(random.nextInt(40));
+        switch (random.nextInt(3)) {
+            case 0 :
+                return Task.buildTask("todo read ☕ " + i + text).getFirst();
+            case 1 :
+                String by = "2025-01-" + (10 + i % 20);
+                return Task.buildTask("deadline submit " + i + text + " /by " + by).getFirst();
+            default :
+                String to = "2025-02-" + (10 + i % 9);
+                return Task.buildTask("event trip " + i + " /from 2025-01-01 /to " + to).getFirst();
+        }
+    }
+
+    @Test
+    void matchesObjectStore_underRandomOperations() {
+        TaskList objects = new TaskList(new ObjectTaskStore());
+        TaskList offHeap = new TaskList(new OffHeapTaskStore());
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            int op = random.nextInt(10);
+            if (op < 5 || objects.size() == 0) {
+                Task task = randomTask(random, i);
+                objects.addTask(task);
+                offHeap.addTask(Task.load(Task.saveString(task)));
+            } else if (op < 7) {
+                int index = random.nextInt(objects.size());
+                assertEquals(
+                        objects.markDone(index).toString(),
+                        offHeap.markDone(index).toString());
+            } else if (op < 8) {
+                int index = random.nextInt(objects.size());
+                assertEquals(
+                        objects.markNotDone(index).toString(),
+                        offHeap.markNotDone(index).toString());
+            } else {
+                int index = random.nextInt(objects.size());
+                objects.removeTask(index);
+                offHeap.removeTask(index);
+            }
+            if (i % 7 == 0) {
+                // Mid-list insert
+                int index = random.nextInt(objects.size() + 1);
+                Task task = randomTask(random, i);
+                objects.insertTask(index, task);
+                offHeap.insertTask(index, Task.load(Task.saveString(task)));
+            }
+        }
+        assertEquals(strings(objects.snapshot()), strings(offHeap.snapshot()));
+        for (String needle : new String[] {"1", "☕ 1", "trip 1", "xxx", "nothing"}) {
+            assertEquals(strings(objects.find(needle)), strings(offHeap.find(needle)));
+        }
+        LocalDate date = LocalDate.of(2025, 2, 14);
+        assertEquals(strings(objects.dueBefore(date)), strings(offHeap.dueBefore(date)));
+    }
+
+    @Test
+    void snapshotAndClear_areIndependent() {
+        OffHeapTaskStore store = new OffHeapTaskStore();
+        store.add(Task.buildTask("todo first").getFirst());
+        store.add(Task.buildTask("deadline second /by 2025-01-01").getFirst());
+        List<Task> before = store.snapshot();
+        store.setDone(0, true);
+        store.remove(1);
+        store.add(Task.buildTask("todo third").getFirst());
+        assertEquals(List.of("[T][ ] first", "[D][ ] second (by: Jan 01 2025)"), strings(before));
+        assertEquals(List.of("[T][X] first", "[T][ ] third"), strings(store.snapshot()));
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(2, before.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(0));
+    }
+
+    @Test
+    void snapshots_surviveMarksAndCompaction() {
+        OffHeapTaskStore store = new OffHeapTaskStore();
+        String padding = "p".repeat(1000);
+        for (int i = 0; i < 200; i++) {
+            store.add(Task.buildTask("todo task " + i + " " + padding).getFirst());
+        }
+        List<Task> before = store.snapshot();
+        List<String> expected = strings(before);
+        // Enough garbage to compact the arena, from removals and replaced records
+        for (int i = 0; i < 150; i++) {
+            store.remove(0);
+        }
+        for (int i = 0; i < store.size(); i += 2) {
+            store.setDone(i, true);
+        }
+        store.add(Task.buildTask("todo last").getFirst());
+
+        assertEquals(expected, strings(before));
+        assertEquals(51, store.size());
+        assertEquals("[T][X] task 150 " + padding, store.get(0).toString());
+        assertEquals("[T][ ] task 151 " + padding, store.get(1).toString());
+        assertEquals("[T][ ] last", store.get(50).toString());
+        assertEquals(
+                List.of(store.get(0).toString(), store.get(1).toString()),
+                strings(store.snapshot()).subList(0, 2));
+    }
+
+    @Test
+    void markThenSave_keepsTheMarkAfterReload() throws Exception {
+        tempDir = Files.createTempDirectory("meep-offheap");
+        for (Storage.Format format : Storage.Format.values()) {
+            Storage.setSaveFile(tempDir.resolve("meep-" + format).toString());
+            Storage.setFormat(format);
+            TaskList list = new TaskList(new OffHeapTaskStore());
+            list.addTask(Task.buildTask("todo read book").getFirst());
+            list.addTask(Task.buildTask("deadline essay /by 2025-01-01").getFirst());
+            assertEquals(2, list.snapshot().size()); // as a listing would
+            list.markDone(1);
+            assertEquals("[D][X] essay (by: Jan 01 2025)", list.snapshot().get(1).toString());
+            assertTrue(Storage.saveTasks(list, new StringBuilder()));
+
+            TaskList reloaded = new TaskList(new OffHeapTaskStore());
+            assertTrue(Storage.loadTasks(reloaded, new StringBuilder()));
+            assertEquals(strings(list.snapshot()), strings(reloaded.snapshot()), format.name());
+        }
+    }
+
+    @Test
+    void descriptions_roundTripExactlyOrAreRefused() {
+        OffHeapTaskStore store = new OffHeapTaskStore();
+        String paired = "emoji \uD83D\uDE00 end";
+        store.add(new ToDoTask(paired, false));
+        store.add(new ToDoTask("question ? mark", false));
+        assertEquals(paired, store.get(0).getDescription());
+
+        // An unpaired surrogate would otherwise be stored as '?'
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> store.add(new ToDoTask("lone \uD83D here", false)));
+        assertEquals(2, store.size());
+
+        // Searches agree with the other stores, which compare chars
+        assertEquals(List.of("[T][ ] question ? mark"), strings(store.find("?")));
+        assertTrue(store.find("\uD83D ").isEmpty());
+        assertEquals(List.of("[T][ ] " + paired), strings(store.find("\uD83D")));
+        assertEquals(List.of("[T][ ] " + paired), strings(store.find("\uDE00 end")));
+    }
+
+    @Test
+    void binaryLoad_copiesRecordsWithoutBuildingTasks() throws Exception {
+        tempDir = Files.createTempDirectory("meep-offheap");
+        Path file = tempDir.resolve("meep.bin");
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(Storage.Format.BINARY);
+        TaskList original = new TaskList();
+        for (int i = 0; i < 500; i++) {
+            original.addTask(randomTask(new Random(i), i));
+        }
+        original.markDone(3);
+        assertTrue(Storage.saveTasks(original, new StringBuilder()));
+
+        TaskList loaded = new TaskList(new OffHeapTaskStore());
+        assertTrue(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(strings(original.snapshot()), strings(loaded.snapshot()));
+
+        // Loaded records can be removed and new ones appended after them
+        loaded.removeTask(0);
+        loaded.addTask(Task.buildTask("todo after load").getFirst());
+        assertEquals("[T][ ] after load", loaded.get(499).toString());
+        assertEquals(original.get(1).toString(), loaded.get(0).toString());
+    }
+
+    @Test
+    void binaryLoad_rejectsInvalidFilesAndNonEmptyStores() throws Exception {
+        tempDir = Files.createTempDirectory("meep-offheap");
+        Path file = tempDir.resolve("meep.bin");
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(Storage.Format.BINARY);
+        TaskList original = new TaskList();
+        original.addTask(Task.buildTask("todo only").getFirst());
+        assertTrue(Storage.saveTasks(original, new StringBuilder()));
+        byte[] bytes = Files.readAllBytes(file);
+
+        OffHeapTaskStore store = new OffHeapTaskStore();
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice();
+        assertFalse(store.loadBinary(truncated));
+        assertEquals(0, store.size());
+        assertTrue(store.loadBinary(ByteBuffer.wrap(bytes)));
+        assertFalse(store.loadBinary(ByteBuffer.wrap(bytes)));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void binaryLoad_rejectsRecordsTheTaskConstructorsWouldRefuse() throws Exception {
+        tempDir = Files.createTempDirectory("meep-offheap");
+        Path file = tempDir.resolve("meep.bin");
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(Storage.Format.BINARY);
+        TaskList original = new TaskList();
+        original.addTask(Task.buildTask("todo fine").getFirst());
+        original.addTask(Task.buildTask("todo blank").getFirst());
+        assertTrue(Storage.saveTasks(original, new StringBuilder()));
+        byte[] bytes = Files.readAllBytes(file);
+        // Blank out the last description: " \t\n " survives the length check
+        byte[] blank = {' ', '\t', '\n', ' ', ' '};
+        System.arraycopy(blank, 0, bytes, bytes.length - blank.length, blank.length);
+        Files.write(file, bytes);
+
+        OffHeapTaskStore store = new OffHeapTaskStore();
+        assertFalse(store.loadBinary(ByteBuffer.wrap(bytes)));
+        assertEquals(0, store.size());
+
+        // The whole file goes to the regular reader, which reports the bad record
+        TaskList loaded = new TaskList(new OffHeapTaskStore());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(List.of("[T][ ] fine"), strings(loaded.snapshot()));
+    }
+}
@@ -0,0 +1,67 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class OrderStatisticTreeTest {
+    private static List<Integer> contents(OrderStatisticTree<Integer> tree) {
+        List<Integer> values = new ArrayList<>();
+        tree.forEach(values::add);
+        return values;
+    }
+
+    @Test
+    void matchesArrayList_underRandomInsertsAndRemoves() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(4);
+            if (op == 0) {
+                tree.add(i);
+                expected.add(i);
+            } else if (op == 1 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                tree.add(index, i);
+                expected.add(index, i);
+            } else if (op == 2) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), tree.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), tree.get(index));
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+        assertEquals(expected, contents(tree));
+    }
+
+    @Test
+    void frontDeletes_keepOrder() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>();
+        for (int i = 0; i < 100000; i++) {
+            tree.add(i);
+        }
+        for (int i = 0; i < 99990; i++) {
+            assertEquals(i, tree.remove(0));
+        }
+        assertEquals(IntStream.range(99990, 100000).boxed().toList(), contents(tree));
+    }
+
+    @Test
+    void invalidIndices_throw() {
+        OrderStatisticTree<String> tree = new OrderStatisticTree<>();
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.add(1, "a"));
+        tree.add(0, "a");
+        tree.clear();
+        assertEquals(0, tree.size());
+    }
+}
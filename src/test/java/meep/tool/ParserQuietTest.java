@@ -2,6 +2,7 @@ package meep.tool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
@@ -57,4 +58,26 @@ class ParserQuietTest {
         String s = c.execute();
         assertTrue(s.contains("Unrecognised command: \"doesnotexist\""));
     }
+
+    @Test
+    void normalize_matchesRegexNormalization() {
+        String[] inputs = {
+            "", "   ", "list", " list ", "a  b", "a\tb", "a \t\r\n b", "\u2003find x\u2003",
+            "a\u00a0 b", "x\u000by"
+        };
+        for (String input : inputs) {
+            assertEquals(input.strip().replaceAll("\\s+", " "), Parser.normalize(input));
+        }
+    }
+
+    @Test
+    void dispatch_keepsKeywordEdgeCases() {
+        assertTrue(Parser.parseQuiet("mark") instanceof Command.UnknownCommand);
+        assertTrue(Parser.parseQuiet("find") instanceof Command.UnknownCommand);
+        assertTrue(Parser.parseQuiet("check up") instanceof Command.UnknownCommand);
+        assertTrue(Parser.parseQuiet("todo") instanceof Command.AddTaskCommand);
+        assertTrue(Parser.parseQuiet("saved") instanceof Command.SaveCommand);
+        assertTrue(Parser.parseQuiet("check due 2025-01-01") instanceof Command.CheckDueCommand);
+        assertThrows(NumberFormatException.class, () -> Parser.parseQuiet("delete x"));
+    }
 }
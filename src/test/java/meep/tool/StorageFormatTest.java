@@ -0,0 +1,89 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Coverage for the binary snapshot format and text-to-binary conversion. */
+class StorageFormatTest {
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("meep-format");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Storage.setFormat(Storage.Format.TEXT);
+        Files.walk(tempDir)
+                .sorted(java.util.Comparator.reverseOrder())
+                .forEach(p -> p.toFile().delete());
+    }
+
+    private static TaskList sampleTasks() {
+        TaskList list = new TaskList();
+        list.addTask(Task.buildTask("todo café ☕").getFirst());
+        list.addTask(Task.buildTask("deadline b /by 2025-08-30").getFirst());
+        list.addTask(Task.buildTask("event c /from 2025-01-01 /to 2025-01-02").getFirst());
+        list.get(1).markDone();
+        return list;
+    }
+
+    @Test
+    void binarySave_isDetectedOnLoad() throws Exception {
+        Path file = tempDir.resolve("meep.bin");
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(Storage.Format.BINARY);
+        TaskList list = sampleTasks();
+        assertTrue(Storage.saveTasks(list, new StringBuilder()));
+        assertEquals('M', Files.readAllBytes(file)[0]);
+
+        TaskList loaded = new TaskList();
+        assertTrue(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(list.size(), loaded.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(list.get(i).toString(), loaded.get(i).toString());
+        }
+    }
+
+    @Test
+    void convertTextToBinary_preservesTasksAndShrinksFile() throws Exception {
+        Path text = tempDir.resolve("meep.txt");
+        Path binary = tempDir.resolve("meep.bin");
+        Storage.setSaveFile(text.toString());
+        assertTrue(Storage.saveTasks(sampleTasks(), new StringBuilder()));
+
+        StringBuilder resp = new StringBuilder();
+        assertTrue(
+                Storage.convert(text.toFile(), binary.toFile(), Storage.Format.BINARY, resp));
+        assertEquals("", resp.toString());
+        assertTrue(Files.size(binary) < Files.size(text));
+
+        Storage.setSaveFile(binary.toString());
+        TaskList loaded = new TaskList();
+        assertTrue(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    void truncatedBinary_reportsPartialLoad() throws Exception {
+        Path file = tempDir.resolve("meep.bin");
+        Storage.setSaveFile(file.toString());
+        Storage.setFormat(Storage.Format.BINARY);
+        assertTrue(Storage.saveTasks(sampleTasks(), new StringBuilder()));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+
+        TaskList loaded = new TaskList();
+        assertFalse(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(2, loaded.size());
+    }
+}
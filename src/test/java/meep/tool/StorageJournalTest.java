@@ -0,0 +1,111 @@
+package meep.tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Coverage for Storage journaling mode: delta replay and compaction. */
+class StorageJournalTest {
+    private Path tempDir;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("meep-journal");
+        snapshot = tempDir.resolve("meep.txt");
+        Storage.setSaveFile(snapshot.toString());
+        Storage.setJournaling(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Storage.setJournaling(false);
+        Files.walk(tempDir)
+                .sorted(java.util.Comparator.reverseOrder())
+                .forEach(p -> p.toFile().delete());
+    }
+
+    @Test
+    void journaledChanges_replayOnLoad() throws Exception {
+        TaskList list = new TaskList();
+        list.addTask(Task.buildTask("todo a").getFirst());
+        assertTrue(Storage.saveTasks(list, new StringBuilder()));
+        String before = Files.readString(snapshot);
+
+        Task b = Task.buildTask("deadline b /by 2025-08-30").getFirst();
+        assertTrue(Storage.addTask(list, b, DuplicatePolicy.ALLOW));
+        Storage.markDone(list, 1);
+        Storage.removeTask(list, 0);
+
+        // Snapshot untouched; save only confirms the journal is current
+        assertTrue(Storage.saveTasks(list, new StringBuilder()));
+        assertEquals(before, Files.readString(snapshot));
+
+        TaskList loaded = new TaskList();
+        assertTrue(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(1, loaded.size());
+        assertEquals(list.get(0).toString(), loaded.get(0).toString());
+    }
+
+    @Test
+    void concurrentChangesAcrossCompaction_replayExactly() throws Exception {
+        TaskList list = new TaskList();
+        assertTrue(Storage.saveTasks(list, new StringBuilder()));
+        // Enough records for the journal to be compacted while both threads run
+        Thread[] writers = new Thread[2];
+        for (int t = 0; t < writers.length; t++) {
+            String name = "writer" + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 700; i++) {
+                    Storage.addTask(list, Task.buildTask("todo " + name + " " + i).getFirst(),
+                            DuplicatePolicy.ALLOW);
+                    if (i % 3 == 0) {
+                        Storage.markDone(list, 0);
+                        Storage.removeTask(list, 0);
+                    }
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        TaskList loaded = new TaskList();
+        assertTrue(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(
+                list.stream().map(Task::toString).toList(),
+                loaded.stream().map(Task::toString).toList());
+    }
+
+    @Test
+    void tornTrailingRecord_reportsPartialLoad() throws Exception {
+        TaskList list = new TaskList();
+        list.addTask(Task.buildTask("todo a").getFirst());
+        assertTrue(Storage.saveTasks(list, new StringBuilder()));
+        Files.writeString(Path.of(snapshot + ".journal"), "M|0\nM|");
+
+        TaskList loaded = new TaskList();
+        assertFalse(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    void finishedCompaction_isRecoveredOnLoad() throws Exception {
+        Files.writeString(snapshot, "|T|0|old|\n");
+        Files.writeString(Path.of(snapshot + ".compact"), "|T|1|new|\n");
+
+        TaskList loaded = new TaskList();
+        assertTrue(Storage.loadTasks(loaded, new StringBuilder()));
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).toString().contains("new"));
+        assertFalse(Files.exists(Path.of(snapshot + ".compact")));
+    }
+}
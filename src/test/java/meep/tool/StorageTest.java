@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
 import org.junit.jupiter.api.Test;
 
 class StorageTest {
@@ -80,4 +81,45 @@ class StorageTest {
         assertEquals(1, loaded.size());
         new java.io.File(tmp).delete();
     }
+
+    @Test
+    void mergeLoad_onlyAppliesWhatChangedSinceLastMerge() throws Exception {
+        String tmp = "build/test-merge-" + System.nanoTime() + ".txt";
+        Storage.setSaveFile(tmp);
+        File file = new File(tmp);
+        Files.writeString(file.toPath(), "|T|0|a|\n|T|0|b|\n");
+        TaskList list = new TaskList();
+        list.addTask(Task.buildTask("todo a").getFirst());
+
+        Pair<Boolean, TaskList.MergeResult> first =
+                Storage.loadTasks(list, DuplicatePolicy.MERGE, new StringBuilder());
+        assertTrue(first.getFirst());
+        assertEquals(1, first.getSecond().added);
+        assertEquals(1, first.getSecond().skipped);
+        assertEquals(2, list.size());
+
+        // b is marked done in the file and c is new
+        Files.writeString(file.toPath(), "|T|0|a|\n|T|1|b|\n|T|0|c|\n");
+        TaskList.MergeResult second =
+                Storage.loadTasks(list, DuplicatePolicy.MERGE, new StringBuilder()).getSecond();
+        assertEquals(1, second.added);
+        assertEquals(2, second.skipped);
+        assertEquals(1, second.updated);
+        assertTrue(list.get(1).isDone());
+
+        TaskList.MergeResult again =
+                Storage.loadTasks(list, DuplicatePolicy.MERGE, new StringBuilder()).getSecond();
+        assertEquals(0, again.added);
+        assertEquals(3, again.skipped);
+        assertEquals(3, list.size());
+
+        // A removal makes the next merge read everything again
+        list.removeTask(0);
+        TaskList.MergeResult restored =
+                Storage.loadTasks(list, DuplicatePolicy.MERGE, new StringBuilder()).getSecond();
+        assertEquals(1, restored.added);
+        assertEquals("[T][ ] a", list.get(2).toString());
+
+        file.delete();
+    }
 }
@@ -1,8 +1,16 @@
 package meep.tool;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 
 /** Additional tests for TaskList utility methods. */
@@ -19,4 +27,169 @@ class TaskListMoreTest {
         long count = list.stream().filter(t -> t.toString().contains("A")).count();
         assertTrue(count == 1);
     }
+
+    @Test
+    void contains_tracksAddsMarksAndRemoves() {
+        TaskList list = new TaskList(new ColumnarTaskStore());
+        list.addTask(Task.buildTask("deadline report /by 2025-03-01").getFirst());
+        assertTrue(list.contains(Task.buildTask("deadline report /by 2025-03-01").getFirst()));
+        assertFalse(list.contains(Task.buildTask("deadline report /by 2025-03-02").getFirst()));
+        assertFalse(list.contains(Task.buildTask("todo report").getFirst()));
+
+        // Added after the index is built
+        list.addTask(Task.buildTask("event fair /from 2025-03-01 /to 2025-03-02").getFirst());
+        Task fair = Task.buildTask("event fair /from 2025-03-01 /to 2025-03-02").getFirst();
+        assertTrue(list.contains(fair));
+        list.markDone(1);
+        assertFalse(list.contains(fair));
+        fair.markDone();
+        assertTrue(list.contains(fair));
+        list.removeTask(1);
+        assertFalse(list.contains(fair));
+    }
+
+    @Test
+    void offerTask_turnsAwayDuplicatesUnderPolicy() {
+        TaskList list = new TaskList();
+        assertTrue(list.offerTask(Task.buildTask("todo A").getFirst(), DuplicatePolicy.REJECT));
+        list.markDone(0);
+        assertFalse(list.offerTask(Task.buildTask("todo A").getFirst(), DuplicatePolicy.REJECT));
+        assertFalse(list.offerTask(Task.buildTask("todo A").getFirst(), DuplicatePolicy.MERGE));
+        assertTrue(list.offerTask(Task.buildTask("todo A").getFirst(), DuplicatePolicy.ALLOW));
+        assertEquals(2, list.size());
+        assertTrue(list.get(0).isDone());
+    }
+
+    @Test
+    void merge_skipsDuplicatesAndTakesTheirDoneFlags() {
+        TaskList list = new TaskList();
+        list.addTask(Task.buildTask("todo A").getFirst());
+        list.addTask(Task.buildTask("todo B").getFirst());
+        Task doneA = Task.buildTask("todo A").getFirst();
+        doneA.markDone();
+        List<Task> incoming = List.of(doneA, Task.buildTask("todo C").getFirst(),
+                Task.buildTask("todo C").getFirst());
+
+        TaskList rejecting = new TaskList();
+        rejecting.addTask(Task.buildTask("todo A").getFirst());
+        TaskList.MergeResult rejected = rejecting.merge(incoming, DuplicatePolicy.REJECT);
+        assertEquals(1, rejected.added);
+        assertEquals(2, rejected.skipped);
+        assertEquals(0, rejected.updated);
+        assertFalse(rejecting.get(0).isDone());
+
+        TaskList.MergeResult merged = list.merge(incoming, DuplicatePolicy.MERGE);
+        assertEquals(1, merged.added);
+        assertEquals(2, merged.skipped);
+        assertEquals(1, merged.updated);
+        assertEquals(3, list.size());
+        assertTrue(list.get(0).isDone());
+        assertTrue(list.contains(doneA));
+    }
+
+    @Test
+    void merge_updatesOnlyTheMatchingTasks() {
+        int[] scans = {0};
+        ObjectTaskStore objects = new ObjectTaskStore();
+        // Object store that counts full-list passes
+        TaskStore store = (TaskStore) Proxy.newProxyInstance(
+                TaskStore.class.getClassLoader(),
+                new Class<?>[] {TaskStore.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("snapshot")) {
+                        scans[0]++;
+                    }
+                    try {
+                        return method.invoke(objects, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        TaskList list = new TaskList(store);
+        for (int i = 0; i < 100; i++) {
+            list.addTask(Task.buildTask("todo task " + i).getFirst());
+        }
+        assertTrue(list.contains(Task.buildTask("todo task 0").getFirst()));
+        int scansAfterIndex = scans[0];
+
+        Task done = Task.buildTask("todo task 42").getFirst();
+        done.markDone();
+        TaskList.MergeResult merged = list.merge(List.of(done), DuplicatePolicy.MERGE);
+        assertEquals(1, merged.updated);
+        assertTrue(list.get(42).isDone());
+
+        TaskList.MergeResult unchanged = list.merge(List.of(done), DuplicatePolicy.MERGE);
+        assertEquals(0, unchanged.updated);
+        assertEquals(scansAfterIndex, scans[0]);
+    }
+
+    // Checks a list's iteration, stream and a save and reload all show the tasks
+    private static void assertListedAndSaved(
+            TaskList list, Supplier<TaskStore> store, String name, String... expected) {
+        List<String> iterated = new ArrayList<>();
+        list.iterateTasks(task -> iterated.add(task.toString()));
+        assertEquals(List.of(expected), iterated, name);
+        assertEquals(List.of(expected), list.stream().map(Task::toString).toList(), name);
+        assertTrue(Storage.saveTasks(list, new StringBuilder()), name);
+        TaskList reloaded = new TaskList(store.get());
+        assertTrue(Storage.loadTasks(reloaded, new StringBuilder()), name);
+        assertEquals(List.of(expected), reloaded.stream().map(Task::toString).toList(), name);
+    }
+
+    @Test
+    void marksAndMerges_reachListingsAndSavesOnEveryStore() throws Exception {
+        List<Supplier<TaskStore>> stores =
+                List.of(ObjectTaskStore::new, ColumnarTaskStore::new, OffHeapTaskStore::new);
+        Path dir = Files.createTempDirectory("meep-marks");
+        try {
+            for (Supplier<TaskStore> store : stores) {
+                for (Storage.Format format : Storage.Format.values()) {
+                    String name = store.get().getClass().getSimpleName() + " " + format;
+                    Storage.setFormat(format);
+                    Storage.setSaveFile(dir.resolve(name).toString());
+                    TaskList list = new TaskList(store.get());
+                    list.addTask(Task.buildTask("todo read book").getFirst());
+                    list.addTask(Task.buildTask("deadline essay /by 2025-01-01").getFirst());
+                    list.addTask(Task.buildTask("todo walk").getFirst());
+
+                    list.snapshot(); // cached before the marks
+                    list.markDone(0);
+                    list.markDone(1);
+                    list.markNotDone(1);
+                    assertListedAndSaved(list, store, name,
+                            "[T][X] read book", "[D][ ] essay (by: Jan 01 2025)", "[T][ ] walk");
+
+                    Task walked = Task.buildTask("todo walk").getFirst();
+                    walked.markDone();
+                    list.snapshot(); // cached before the merge
+                    assertEquals(1, list.merge(List.of(walked), DuplicatePolicy.MERGE).updated);
+                    assertListedAndSaved(list, store, name,
+                            "[T][X] read book", "[D][ ] essay (by: Jan 01 2025)", "[T][X] walk");
+                }
+            }
+        } finally {
+            Storage.setFormat(Storage.Format.TEXT);
+            Files.walk(dir)
+                    .sorted(java.util.Comparator.reverseOrder())
+                    .forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    void find_matchesPlainSubstringSearch() {
+        TaskList list = new TaskList();
+        String[] descriptions = {"read book", "Book club", "bookkeeping", "ok", "buy books"};
+        for (String description : descriptions) {
+            list.addTask(Task.buildTask("todo " + description).getFirst());
+        }
+        for (String needle : new String[] {"book", "ook", "ok", "o", "Book", "books", "zzz"}) {
+            List<Task> expected =
+                    list.stream().filter(t -> t.checkDescriptionContains(needle)).toList();
+            assertEquals(expected, list.find(needle), needle);
+        }
+
+        list.removeTask(0);
+        assertEquals(2, list.find("book").size());
+        assertTrue(list.find("book").get(0).toString().contains("bookkeeping"));
+    }
 }
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
@@ -56,4 +58,79 @@ class TaskListTest {
         list.iterateTasks(t -> fail("should not be called on empty"));
         list.iterateTasks((t, i) -> fail("should not be called on empty"));
     }
+
+    @Test
+    void dueBefore_tracksAddMarkUnmarkAndRemove() {
+        TaskList list = new TaskList();
+        list.addTask(Task.buildTask("deadline late /by 2025-03-01").getFirst());
+        list.addTask(Task.buildTask("todo never due").getFirst());
+        list.addTask(Task.buildTask("event early /from 2025-01-01 /to 2025-01-05").getFirst());
+        list.addTask(Task.buildTask("deadline cutoff /by 2025-06-01").getFirst());
+        LocalDate query = LocalDate.of(2025, 6, 1);
+
+        List<Task> due = list.dueBefore(query);
+        assertEquals(2, due.size());
+        assertTrue(due.get(0).toString().contains("late")); // list order
+        assertTrue(due.get(1).toString().contains("early"));
+
+        list.markDone(0);
+        assertEquals(1, list.dueBefore(query).size());
+        list.markNotDone(0);
+        list.insertTask(1, Task.buildTask("deadline inserted /by 2025-02-01").getFirst());
+        due = list.dueBefore(query);
+        assertEquals(3, due.size());
+        assertTrue(due.get(0).toString().contains("late"));
+        assertTrue(due.get(1).toString().contains("inserted"));
+        assertTrue(due.get(2).toString().contains("early"));
+        list.removeTask(1);
+
+        list.removeTask(2);
+        assertEquals(1, list.dueBefore(query).size());
+        list.clearTasks();
+        assertTrue(list.dueBefore(query).isEmpty());
+    }
+
+    @Test
+    void concurrentReaders_seeConsistentSnapshotsWhileWriterMutates() throws Exception {
+        TaskList list = new TaskList();
+        int count = 5000;
+        AtomicInteger failures = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                list.addTask(Task.buildTask("deadline job " + i + " /by 2025-01-01").getFirst());
+                if (i % 10 == 0) {
+                    list.markDone(i);
+                }
+            }
+        });
+        Runnable reader = () -> {
+            try {
+                while (list.size() < count) {
+                    List<Task> snapshot = list.snapshot();
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        if (!snapshot.get(i).getDescription().equals("job " + i)) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    list.find("job 4");
+                    list.dueBefore(LocalDate.of(2025, 1, 2));
+                }
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+            }
+        };
+        Thread[] readers = {new Thread(reader), new Thread(reader)};
+        writer.start();
+        for (Thread t : readers) {
+            t.start();
+        }
+        writer.join();
+        for (Thread t : readers) {
+            t.join();
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(count, list.stream().count());
+        assertEquals(count - count / 10, list.dueBefore(LocalDate.of(2025, 1, 2)).size());
+    }
 }
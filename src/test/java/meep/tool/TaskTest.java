@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
 import org.junit.jupiter.api.Test;
 
 class TaskTest {
@@ -87,6 +88,23 @@ class TaskTest {
         assertTrue(dBefore.isDue("2025-01-02"));
     }
 
+    @Test
+    void isDue_preParsedDateMatchesStringQuery() {
+        LocalDate query = LocalDate.of(2025, 1, 2);
+        Task d = Task.buildTask("deadline db /by 2025-01-01").getFirst();
+        Task e = Task.buildTask("event eb /from 2024-12-30 /to 2025-01-02").getFirst();
+        Task t = Task.buildTask("todo tb").getFirst();
+        assertEquals(d.isDue("2025-01-02"), d.isDue(query));
+        assertEquals(e.isDue("2025-01-02"), e.isDue(query));
+        assertFalse(t.isDue(query));
+        assertFalse(d.isDue("not a date"));
+
+        // Cached display strings stay in step with the done flag
+        assertEquals("[D][ ] db (by: Jan 01 2025)", d.toString());
+        d.markDone();
+        assertEquals("[D][X] db (by: Jan 01 2025)", d.toString());
+    }
+
     @Test
     void load_invalidStringsThrow() {
         assertThrows(IllegalArgumentException.class, () -> Task.load("||"));
@@ -49,4 +49,36 @@ class UiTest {
         assertEquals("line2", lines[2]);
         assertEquals(50, lines[3].length());
     }
+
+    @Test
+    void bufferedSink_holdsOutputUntilFlushOrThreshold() {
+        out.reset();
+        PrintStream target = System.out;
+        OutputSink previous = Ui.setSink(new OutputSink.Buffered(target, 200));
+        try {
+            Ui.printResponse("held");
+            assertEquals("", out.toString());
+            Ui.flush();
+            assertTrue(out.toString().contains("held"));
+
+            out.reset();
+            Ui.printResponse("x".repeat(200));
+            assertTrue(out.toString().contains("x".repeat(200)));
+        } finally {
+            Ui.setSink(previous);
+        }
+    }
+
+    @Test
+    void asyncSink_writesEverythingInOrderByFlush() {
+        out.reset();
+        OutputSink.Async sink = new OutputSink.Async(System.out);
+        for (int i = 0; i < 5000; i++) {
+            sink.write(i + "\n");
+        }
+        sink.close();
+        String[] lines = out.toString().split("\n");
+        assertEquals(5000, lines.length);
+        assertEquals("4999", lines[4999]);
+    }
 }